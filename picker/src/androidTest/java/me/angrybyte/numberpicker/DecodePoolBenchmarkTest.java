@@ -0,0 +1,93 @@
+
+package me.angrybyte.numberpicker;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.drawable.BitmapDrawable;
+import android.os.Bundle;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares {@link Coloring#colorDrawable(Context, int, int)} with and without giving the bitmaps back through
+ * {@link Coloring#releaseBitmap(Bitmap)}: the median decode time, and how many bitmaps (and pixel bytes) were allocated. Results are logged
+ * and reported as instrumentation status, run with {@code ./gradlew :picker:connectedAndroidTest}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DecodePoolBenchmarkTest {
+
+    private static final String LOG_TAG = DecodePoolBenchmarkTest.class.getSimpleName();
+    private static final int RUNS = 200;
+    private static final int ICON = R.drawable.ic_keyboard_arrow_left_black_24dp;
+    private static final int COLOR = 0xFF3F51B5;
+
+    private Instrumentation mInstrumentation;
+    private Context mContext;
+
+    @Before
+    public void setUp() {
+        mInstrumentation = InstrumentationRegistry.getInstrumentation();
+        mContext = InstrumentationRegistry.getTargetContext();
+    }
+
+    @Test
+    public void unpooled() {
+        int allocated = measure("unpooled", false);
+        assertEquals(RUNS, allocated);
+    }
+
+    @Test
+    public void pooled() {
+        int allocated = measure("pooled", true);
+        // after the first decode, every decode reuses the released bitmap
+        assertTrue("Allocated " + allocated + " bitmaps", allocated <= 2);
+    }
+
+    /**
+     * Decodes and tints an icon {@link #RUNS} times, on a fresh {@link Coloring} so that nothing is pooled up front.
+     *
+     * @return How many distinct bitmaps were decoded into
+     */
+    private int measure(String name, boolean release) {
+        Coloring coloring = new Coloring();
+        IdentityHashMap<Bitmap, Boolean> bitmaps = new IdentityHashMap<>();
+        long[] nanos = new long[RUNS];
+        long bytes = 0;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            BitmapDrawable drawable = (BitmapDrawable) coloring.colorDrawable(mContext, ICON, COLOR);
+            nanos[i] = System.nanoTime() - start;
+
+            Bitmap bitmap = drawable.getBitmap();
+            if (bitmaps.put(bitmap, Boolean.TRUE) == null) {
+                bytes += bitmap.getRowBytes() * bitmap.getHeight();
+            }
+            if (release) {
+                coloring.releaseBitmap(bitmap);
+            }
+        }
+
+        Arrays.sort(nanos);
+        long median = nanos[RUNS / 2];
+        Log.i(LOG_TAG, name + ": median " + median / 1000 + " us, " + bitmaps.size() + " bitmaps allocated (" + bytes + " bytes)");
+        Bundle status = new Bundle();
+        status.putLong(name + "_median_nanos", median);
+        status.putInt(name + "_bitmaps", bitmaps.size());
+        status.putLong(name + "_bitmap_bytes", bytes);
+        mInstrumentation.sendStatus(0, status);
+        return bitmaps.size();
+    }
+
+}
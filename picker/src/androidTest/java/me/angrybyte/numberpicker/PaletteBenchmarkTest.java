@@ -0,0 +1,155 @@
+
+package me.angrybyte.numberpicker;
+
+import android.app.Instrumentation;
+import android.os.Bundle;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Compares the bulk palette operations of {@link Coloring} with calling the per-color versions in a loop, on a palette of
+ * {@link #PALETTE_SIZE} colors. Each path is warmed up first and then timed {@link #RUNS} times; the median is logged and reported as
+ * instrumentation status, run with {@code ./gradlew :picker:connectedAndroidTest}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PaletteBenchmarkTest {
+
+    private static final String LOG_TAG = PaletteBenchmarkTest.class.getSimpleName();
+    private static final int PALETTE_SIZE = 10000;
+    private static final int WARMUP_RUNS = 10;
+    private static final int RUNS = 50;
+    // the amounts used by darkenColor() and lightenColor()
+    private static final int DARKEN_AMOUNT = 30;
+    private static final int LIGHTEN_AMOUNT = 60;
+
+    private Instrumentation mInstrumentation;
+    private Coloring mColoring;
+    private int[] mPalette;
+    private int[] mBulk;
+    private int[] mSingle;
+
+    private interface Operation {
+        void run();
+    }
+
+    @Before
+    public void setUp() {
+        mInstrumentation = InstrumentationRegistry.getInstrumentation();
+        mColoring = new Coloring();
+        mPalette = new int[PALETTE_SIZE];
+        Random random = new Random(42);
+        for (int i = 0; i < PALETTE_SIZE; i++) {
+            mPalette[i] = random.nextInt();
+        }
+        mBulk = new int[PALETTE_SIZE];
+        mSingle = new int[PALETTE_SIZE];
+    }
+
+    @Test
+    public void darkenColors() {
+        compare("darken", new Operation() {
+            @Override
+            public void run() {
+                mColoring.darkenColors(mPalette, mBulk, DARKEN_AMOUNT);
+            }
+        }, new Operation() {
+            @Override
+            public void run() {
+                for (int i = 0; i < PALETTE_SIZE; i++) {
+                    mSingle[i] = mColoring.darkenColor(mPalette[i]);
+                }
+            }
+        });
+        assertArrayEquals(mSingle, mBulk);
+    }
+
+    @Test
+    public void lightenColors() {
+        compare("lighten", new Operation() {
+            @Override
+            public void run() {
+                mColoring.lightenColors(mPalette, mBulk, LIGHTEN_AMOUNT);
+            }
+        }, new Operation() {
+            @Override
+            public void run() {
+                for (int i = 0; i < PALETTE_SIZE; i++) {
+                    mSingle[i] = mColoring.lightenColor(mPalette[i]);
+                }
+            }
+        });
+        assertArrayEquals(mSingle, mBulk);
+    }
+
+    @Test
+    public void alphaBlendWithWhite() {
+        // the per-color version rounds through floats, so the results may differ by one per channel and are not compared
+        compare("blend", new Operation() {
+            @Override
+            public void run() {
+                mColoring.alphaBlendWithWhite(mPalette, mBulk);
+            }
+        }, new Operation() {
+            @Override
+            public void run() {
+                for (int i = 0; i < PALETTE_SIZE; i++) {
+                    mSingle[i] = mColoring.alphaBlendWithWhite(mPalette[i]);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void getContrastColors() {
+        compare("contrast", new Operation() {
+            @Override
+            public void run() {
+                mColoring.getContrastColors(mPalette, mBulk);
+            }
+        }, new Operation() {
+            @Override
+            public void run() {
+                for (int i = 0; i < PALETTE_SIZE; i++) {
+                    mSingle[i] = mColoring.getContrastColor(mPalette[i]);
+                }
+            }
+        });
+        assertArrayEquals(mSingle, mBulk);
+    }
+
+    private void compare(String name, Operation bulk, Operation single) {
+        long bulkNanos = median(bulk);
+        long singleNanos = median(single);
+
+        Log.i(LOG_TAG, name + ": bulk " + bulkNanos / 1000 + " us, per color " + singleNanos / 1000 + " us");
+        Bundle status = new Bundle();
+        status.putLong(name + "_bulk_nanos", bulkNanos);
+        status.putLong(name + "_single_nanos", singleNanos);
+        mInstrumentation.sendStatus(0, status);
+    }
+
+    private static long median(Operation operation) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            operation.run();
+        }
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            operation.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[RUNS / 2];
+    }
+
+}
@@ -0,0 +1,104 @@
+
+package me.angrybyte.numberpicker.view;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.os.Bundle;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+import android.view.LayoutInflater;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import me.angrybyte.numberpicker.test.R;
+
+import static org.junit.Assert.assertSame;
+
+/**
+ * Measures how long it takes to create a picker on the main thread, from XML and from code. The first pickers pay for the shared
+ * {@link PickerStyle} and class loading, so they are reported separately from the median of the following ones. Results are logged and
+ * reported as instrumentation status, run with {@code ./gradlew :picker:connectedAndroidTest}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class InflationBenchmarkTest {
+
+    private static final String LOG_TAG = InflationBenchmarkTest.class.getSimpleName();
+    private static final int RUNS = 200;
+
+    private Instrumentation mInstrumentation;
+    private Context mContext;
+
+    @Before
+    public void setUp() {
+        mInstrumentation = InstrumentationRegistry.getInstrumentation();
+        mContext = InstrumentationRegistry.getTargetContext();
+    }
+
+    @Test
+    public void inflateFromXml() {
+        final LayoutInflater inflater = LayoutInflater.from(mContext);
+        final ActualNumberPicker[] pickers = new ActualNumberPicker[RUNS];
+        long[] nanos = measure(new Creator() {
+            @Override
+            public void create(int run) {
+                pickers[run] = (ActualNumberPicker) inflater.inflate(R.layout.benchmark_picker, null);
+            }
+        });
+        report("xml", nanos);
+        assertSame(pickers[0].getStyle(), pickers[RUNS - 1].getStyle());
+    }
+
+    @Test
+    public void constructFromCode() {
+        final ActualNumberPicker[] pickers = new ActualNumberPicker[RUNS];
+        long[] nanos = measure(new Creator() {
+            @Override
+            public void create(int run) {
+                pickers[run] = new ActualNumberPicker(mContext);
+            }
+        });
+        report("code", nanos);
+        assertSame(pickers[0].getStyle(), pickers[RUNS - 1].getStyle());
+    }
+
+    private interface Creator {
+        void create(int run);
+    }
+
+    /**
+     * Creates {@link #RUNS} pickers on the main thread, timing each of them.
+     */
+    private long[] measure(final Creator creator) {
+        final long[] nanos = new long[RUNS];
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < RUNS; i++) {
+                    long start = System.nanoTime();
+                    creator.create(i);
+                    nanos[i] = System.nanoTime() - start;
+                }
+            }
+        });
+        return nanos;
+    }
+
+    private void report(String name, long[] nanos) {
+        long first = nanos[0];
+        long[] rest = Arrays.copyOfRange(nanos, 1, nanos.length);
+        Arrays.sort(rest);
+        long median = rest[rest.length / 2];
+
+        Log.i(LOG_TAG, name + ": first " + first / 1000 + " us, median " + median / 1000 + " us");
+        Bundle status = new Bundle();
+        status.putLong(name + "_first_nanos", first);
+        status.putLong(name + "_median_nanos", median);
+        mInstrumentation.sendStatus(0, status);
+    }
+
+}
@@ -0,0 +1,118 @@
+
+package me.angrybyte.numberpicker.view;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Bundle;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import me.angrybyte.numberpicker.test.R;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Inflates, lays out and draws 1, 100 and 1,000 pickers of the same look, and checks them against the memory budget from the README:
+ * pickers hold no bitmaps of their own, share one {@link PickerStyle}, the style's bitmaps stay within budget, and the Java heap per
+ * picker stays within budget. Measured numbers are logged and reported as instrumentation status, run with
+ * {@code ./gradlew :picker:connectedAndroidTest}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MemoryFootprintTest {
+
+    private static final String LOG_TAG = MemoryFootprintTest.class.getSimpleName();
+    private static final int STYLE_BITMAP_BUDGET_BYTES = 256 * 1024;
+    private static final long HEAP_PER_PICKER_BUDGET_BYTES = 32 * 1024;
+    // fewer pickers are reported, but too noisy to check against the budget
+    private static final int MIN_CHECKED_COUNT = 100;
+    private static final int WIDTH_DP = 360;
+    private static final int HEIGHT_DP = 56;
+
+    private Instrumentation mInstrumentation;
+    private Context mContext;
+
+    @Before
+    public void setUp() {
+        mInstrumentation = InstrumentationRegistry.getInstrumentation();
+        mContext = InstrumentationRegistry.getTargetContext();
+    }
+
+    @Test
+    public void onePicker() {
+        measure(1);
+    }
+
+    @Test
+    public void hundredPickers() {
+        measure(100);
+    }
+
+    @Test
+    public void thousandPickers() {
+        measure(1000);
+    }
+
+    private void measure(final int count) {
+        float density = mContext.getResources().getDisplayMetrics().density;
+        final int width = (int) (WIDTH_DP * density);
+        final int height = (int) (HEIGHT_DP * density);
+        final Canvas canvas = new Canvas(Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888));
+        final LayoutInflater inflater = LayoutInflater.from(mContext);
+        final ActualNumberPicker[] pickers = new ActualNumberPicker[count];
+
+        long heapBefore = usedHeap();
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < count; i++) {
+                    ActualNumberPicker picker = (ActualNumberPicker) inflater.inflate(R.layout.benchmark_picker, null);
+                    picker.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                            View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+                    picker.layout(0, 0, width, height);
+                    picker.draw(canvas);
+                    pickers[i] = picker;
+                }
+            }
+        });
+        long heapPerPicker = (usedHeap() - heapBefore) / count;
+
+        PickerStyle style = pickers[0].getStyle();
+        int styleBytes = style.getBitmapByteCount();
+        for (ActualNumberPicker picker : pickers) {
+            assertEquals(0, picker.getBitmapByteCount());
+            assertSame(style, picker.getStyle());
+        }
+
+        Log.i(LOG_TAG, count + " pickers: " + heapPerPicker + " heap bytes per picker, " + styleBytes + " shared style bitmap bytes");
+        Bundle status = new Bundle();
+        status.putLong("heap_bytes_per_picker_" + count, heapPerPicker);
+        status.putInt("style_bitmap_bytes_" + count, styleBytes);
+        mInstrumentation.sendStatus(0, status);
+
+        assertTrue("Style bitmaps take " + styleBytes + " bytes", styleBytes <= STYLE_BITMAP_BUDGET_BYTES);
+        if (count >= MIN_CHECKED_COUNT) {
+            assertTrue("Each picker takes " + heapPerPicker + " heap bytes", heapPerPicker <= HEAP_PER_PICKER_BUDGET_BYTES);
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            runtime.gc();
+            System.runFinalization();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+}
@@ -5,6 +5,7 @@ import android.annotation.SuppressLint;
 import android.annotation.TargetApi;
 import android.content.Context;
 import android.content.res.ColorStateList;
+import android.content.res.Resources;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
@@ -21,11 +22,18 @@ import android.graphics.drawable.GradientDrawable.Orientation;
 import android.graphics.drawable.RippleDrawable;
 import android.graphics.drawable.StateListDrawable;
 import android.os.Build;
+import android.support.annotation.FloatRange;
+import android.support.annotation.IntRange;
 import android.support.annotation.Nullable;
 import android.support.v4.graphics.drawable.DrawableCompat;
 import android.support.v4.graphics.drawable.DrawableWrapper;
 import android.util.Log;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import static android.graphics.PorterDuff.Mode.SRC_ATOP;
 
 /**
@@ -41,14 +49,42 @@ public class Coloring {
 
     private static final String LOG_TAG = Coloring.class.getSimpleName();
     private static final int BOUNDS = 1500;
-    private static final int BRIGHTNESS_THRESHOLD = 180;
+    // white text has the better contrast ratio below this luminance, black text above it: sqrt(1.05 * 0.05) - 0.05
+    private static final float LUMINANCE_THRESHOLD = 0.1791f;
+    // sRGB channel value (0-255) to linear light (0-1), so luminance needs no Math.pow() calls
+    private static final float[] SRGB_TO_LINEAR = new float[256];
     private static final int FADE_DURATION = 200;
 
     private static final Object mInitializerLock;
     private static Coloring mInstance;
 
+    private static final int MAX_DECODE_CACHE_SIZE = 4096;
+    private final Object mDecodeCacheLock = new Object();
+    // null when disabled, read without locking
+    private volatile DecodeCache mDecodeCache;
+
+    private static final int DECODE_POOL_SIZE = 4;
+    private static final int DECODE_TEMP_STORAGE = 16 * 1024;
+    private final Object mDecodePoolLock = new Object();
+    private final ArrayDeque<byte[]> mTempStoragePool = new ArrayDeque<>(DECODE_POOL_SIZE);
+    private final ArrayList<Bitmap> mBitmapPool = new ArrayList<>(DECODE_POOL_SIZE);
+
+    private static final int STATE_CACHE_SIZE = 8;
+    private final Object mStateCacheLock = new Object();
+    private final Map<StateKey, Drawable.ConstantState> mStateCache = new LinkedHashMap<StateKey, Drawable.ConstantState>(
+            STATE_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<StateKey, Drawable.ConstantState> eldest) {
+            return size() > STATE_CACHE_SIZE;
+        }
+    };
+
     static {
         mInitializerLock = new Object();
+        for (int i = 0; i < SRGB_TO_LINEAR.length; i++) {
+            double channel = i / 255d;
+            SRGB_TO_LINEAR[i] = (float) (channel <= 0.03928d ? channel / 12.92d : Math.pow((channel + 0.055d) / 1.055d, 2.4d));
+        }
     }
 
     /**
@@ -76,8 +112,35 @@ public class Coloring {
 
     /* **********  Factory methods go below this line  ********** */
 
+    /**
+     * Enables memoization of {@link #decodeColor(String)} results. Repeated theme strings are then resolved with a single map lookup
+     * instead of being parsed again. The cache is bounded; when full, the least recently used entry is evicted. Colors are cached as
+     * primitives, so neither hits nor misses allocate.
+     *
+     * @param maxEntries How many decoded strings to keep (at most 4096), use {@code 0} to disable (and clear) the cache
+     */
+    public void setDecodeCacheSize(@IntRange(from = 0, to = MAX_DECODE_CACHE_SIZE) int maxEntries) {
+        synchronized (mDecodeCacheLock) {
+            if (maxEntries <= 0) {
+                mDecodeCache = null;
+                return;
+            }
+
+            DecodeCache previous = mDecodeCache;
+            DecodeCache cache = new DecodeCache(Math.min(maxEntries, MAX_DECODE_CACHE_SIZE));
+            if (previous != null) {
+                synchronized (previous) {
+                    cache.putAll(previous);
+                }
+            }
+            mDecodeCache = cache;
+        }
+    }
+
     /**
      * Converts a String hex color value to an Integer color value.<br>
+     * Characters are read directly from the input, no intermediate strings are created. If the decode cache is enabled (see
+     * {@link #setDecodeCacheSize(int)}), results are memoized.<br>
      * <br>
      * <b>Supported formats:</b><br>
      * <ul>
@@ -87,43 +150,121 @@ public class Coloring {
      * <li>#RRggBb</li>
      * <li>0xRRggBb</li>
      * <li>0XRRggBb</li>
+     * <li>#aRgB</li>
+     * <li>#RgB</li>
      * </ul>
      *
      * @param colorString String value of the desired color
-     * @return Integer value for the color, or gray if something goes wrong
+     * @return Integer value for the color, black if the string is empty, or gray if something goes wrong
      */
     public int decodeColor(String colorString) {
-        if (colorString == null || colorString.trim().isEmpty())
+        if (colorString == null) {
             return Color.BLACK;
+        }
 
-        if (colorString.startsWith("#"))
-            colorString = colorString.replace("#", "");
+        DecodeCache cache = mDecodeCache;
+        if (cache == null) {
+            // cache is disabled, no locking
+            return parseColor(colorString);
+        }
 
-        if (colorString.startsWith("0x"))
-            colorString = colorString.replace("0x", "");
+        // parsing is short and allocation-free, so a miss is parsed and stored under the same lock
+        synchronized (cache) {
+            int index = cache.find(colorString);
+            if (index >= 0) {
+                return cache.colorAt(index);
+            }
+            int color = parseColor(colorString);
+            cache.put(colorString, color);
+            return color;
+        }
+    }
 
-        if (colorString.startsWith("0X"))
-            colorString = colorString.replace("0X", "");
+    /**
+     * Decodes all given color strings at once, see {@link #decodeColor(String)} for the supported formats.
+     *
+     * @param colorStrings Which color strings to decode
+     * @param destination Where to write the decoded colors, must be at least as long as {@code colorStrings}
+     * @return The {@code destination} array, for convenience
+     */
+    public int[] decodeColors(String[] colorStrings, int[] destination) {
+        if (destination.length < colorStrings.length) {
+            throw new RuntimeException("Cannot decode " + colorStrings.length + " colors into an array of size " + destination.length);
+        }
 
-        int alpha = -1, red = -1, green = -1, blue = -1;
+        for (int i = 0; i < colorStrings.length; i++) {
+            destination[i] = decodeColor(colorStrings[i]);
+        }
+        return destination;
+    }
 
-        try {
-            if (colorString.length() == 8) {
-                alpha = Integer.parseInt(colorString.substring(0, 2), 16);
-                red = Integer.parseInt(colorString.substring(2, 4), 16);
-                green = Integer.parseInt(colorString.substring(4, 6), 16);
-                blue = Integer.parseInt(colorString.substring(6, 8), 16);
-            } else if (colorString.length() == 6) {
-                alpha = 255;
-                red = Integer.parseInt(colorString.substring(0, 2), 16);
-                green = Integer.parseInt(colorString.substring(2, 4), 16);
-                blue = Integer.parseInt(colorString.substring(4, 6), 16);
-            }
-            return Color.argb(alpha, red, green, blue);
-        } catch (NumberFormatException e) {
-            Log.w(LOG_TAG, "Error parsing color ", e);
+    /**
+     * Parses the color string without allocating. Surrounding whitespace and the {@code #}, {@code 0x} or {@code 0X} prefix are skipped by
+     * moving the read indices instead of trimming/replacing.
+     *
+     * @param colorString String value of the desired color
+     * @return Integer value for the color, black if the string is empty, or gray if something goes wrong
+     */
+    private int parseColor(CharSequence colorString) {
+        int start = 0;
+        int end = colorString.length();
+        while (start < end && colorString.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && colorString.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        if (start == end) {
+            return Color.BLACK;
+        }
+
+        if (colorString.charAt(start) == '#') {
+            start++;
+        } else if (end - start > 1 && colorString.charAt(start) == '0'
+                && (colorString.charAt(start + 1) == 'x' || colorString.charAt(start + 1) == 'X')) {
+            start += 2;
+        }
+
+        int length = end - start;
+        if (length != 3 && length != 4 && length != 6 && length != 8) {
+            Log.w(LOG_TAG, "Error parsing color, unsupported length " + length);
             return Color.GRAY;
         }
+
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = Character.digit(colorString.charAt(i), 16);
+            if (digit < 0) {
+                Log.w(LOG_TAG, "Error parsing color, invalid hex digit at " + i);
+                return Color.GRAY;
+            }
+            value = (value << 4) | digit;
+        }
+
+        switch (length) {
+            case 3: {
+                // #RGB, each nibble is doubled (0xF -> 0xFF)
+                int r = ((value >> 8) & 0xF) * 0x11;
+                int g = ((value >> 4) & 0xF) * 0x11;
+                int b = (value & 0xF) * 0x11;
+                return 0xFF000000 | (r << 16) | (g << 8) | b;
+            }
+            case 4: {
+                // #ARGB, each nibble is doubled (0xF -> 0xFF)
+                int a = ((value >> 12) & 0xF) * 0x11;
+                int r = ((value >> 8) & 0xF) * 0x11;
+                int g = ((value >> 4) & 0xF) * 0x11;
+                int b = (value & 0xF) * 0x11;
+                return (a << 24) | (r << 16) | (g << 8) | b;
+            }
+            case 6: {
+                return 0xFF000000 | value;
+            }
+            default: {
+                return value;
+            }
+        }
     }
 
     /**
@@ -225,6 +366,165 @@ public class Coloring {
         return Color.argb(a, r, g, b);
     }
 
+    /**
+     * Linearly interpolates between two colors, channel by channel (including alpha).
+     *
+     * @param from Color to use when {@code ratio} is {@code 0}
+     * @param to Color to use when {@code ratio} is {@code 1}
+     * @param ratio How far to go from {@code from} to {@code to}, between 0 and 1
+     * @return The blended color
+     */
+    public int blendColors(int from, int to, @FloatRange(from = 0.0, to = 1.0) float ratio) {
+        float inverse = 1f - ratio;
+        int a = (int) (Color.alpha(from) * inverse + Color.alpha(to) * ratio);
+        int r = (int) (Color.red(from) * inverse + Color.red(to) * ratio);
+        int g = (int) (Color.green(from) * inverse + Color.green(to) * ratio);
+        int b = (int) (Color.blue(from) * inverse + Color.blue(to) * ratio);
+        return Color.argb(a, r, g, b);
+    }
+
+    /**
+     * Bulk version of {@link #darkenColor(int)}, working directly on packed ARGB values. Alpha is preserved.<br>
+     * <b>Note</b>: {@code source} and {@code destination} may be the same array.
+     *
+     * @param source Original colors that need to be darker
+     * @param destination Where to write the darkened colors, must be at least as long as {@code source}
+     * @param amount How much to subtract from each color channel
+     */
+    public void darkenColors(int[] source, int[] destination, @IntRange(from = 0, to = 255) int amount) {
+        checkPaletteBuffers(source, destination);
+        int color, r, g, b;
+        for (int i = 0; i < source.length; i++) {
+            color = source[i];
+            r = ((color >> 16) & 0xFF) - amount;
+            g = ((color >> 8) & 0xFF) - amount;
+            b = (color & 0xFF) - amount;
+            if (r < 0)
+                r = 0;
+            if (g < 0)
+                g = 0;
+            if (b < 0)
+                b = 0;
+            destination[i] = (color & 0xFF000000) | (r << 16) | (g << 8) | b;
+        }
+    }
+
+    /**
+     * Bulk version of {@link #lightenColor(int)}, working directly on packed ARGB values. Alpha is preserved.<br>
+     * <b>Note</b>: {@code source} and {@code destination} may be the same array.
+     *
+     * @param source Original colors that need to be lighter
+     * @param destination Where to write the lightened colors, must be at least as long as {@code source}
+     * @param amount How much to add to each color channel
+     */
+    public void lightenColors(int[] source, int[] destination, @IntRange(from = 0, to = 255) int amount) {
+        checkPaletteBuffers(source, destination);
+        int color, r, g, b;
+        for (int i = 0; i < source.length; i++) {
+            color = source[i];
+            r = ((color >> 16) & 0xFF) + amount;
+            g = ((color >> 8) & 0xFF) + amount;
+            b = (color & 0xFF) + amount;
+            if (r > 255)
+                r = 255;
+            if (g > 255)
+                g = 255;
+            if (b > 255)
+                b = 255;
+            destination[i] = (color & 0xFF000000) | (r << 16) | (g << 8) | b;
+        }
+    }
+
+    /**
+     * Bulk version of {@link #alphaBlendWithWhite(int)}, using integer arithmetic only. Resulting colors are non-transparent.<br>
+     * <b>Note</b>: {@code source} and {@code destination} may be the same array.
+     *
+     * @param source Colors to use for blending
+     * @param destination Where to write the blended colors, must be at least as long as {@code source}
+     */
+    public void alphaBlendWithWhite(int[] source, int[] destination) {
+        checkPaletteBuffers(source, destination);
+        int color, a, white, r, g, b;
+        for (int i = 0; i < source.length; i++) {
+            color = source[i];
+            a = color >>> 24;
+            // rule: outputRed = (foregroundRed * foregroundAlpha) + (backgroundRed * (1.0 - foregroundAlpha))
+            white = 255 * (255 - a);
+            r = (((color >> 16) & 0xFF) * a + white) / 255;
+            g = (((color >> 8) & 0xFF) * a + white) / 255;
+            b = ((color & 0xFF) * a + white) / 255;
+            destination[i] = 0xFF000000 | (r << 16) | (g << 8) | b;
+        }
+    }
+
+    /**
+     * Bulk version of {@link #getContrastColor(int)}, working directly on packed ARGB values.<br>
+     * <b>Note</b>: {@code source} and {@code destination} may be the same array.
+     *
+     * @param source Calculating contrasted colors to these ones
+     * @param destination Where to write the contrast colors (white or black), must be at least as long as {@code source}
+     */
+    public void getContrastColors(int[] source, int[] destination) {
+        checkPaletteBuffers(source, destination);
+        for (int i = 0; i < source.length; i++) {
+            destination[i] = getLuminance(source[i]) < LUMINANCE_THRESHOLD ? Color.WHITE : Color.BLACK;
+        }
+    }
+
+    /**
+     * Bulk version of {@link #getLuminance(int)}.
+     *
+     * @param source Colors to calculate the luminance for
+     * @param destination Where to write the luminance values, must be at least as long as {@code source}
+     */
+    public void getLuminances(int[] source, float[] destination) {
+        if (destination.length < source.length) {
+            throw new RuntimeException("Cannot use destination of length " + destination.length + " for " + source.length + " colors");
+        }
+        for (int i = 0; i < source.length; i++) {
+            destination[i] = getLuminance(source[i]);
+        }
+    }
+
+    /**
+     * Picks the most readable of the candidate colors (e.g. text or icon colors) for each of the given backgrounds, i.e. the candidate
+     * with the highest contrast ratio. Nothing is allocated, so this can run on every palette update.<br>
+     * <b>Note</b>: {@code backgrounds} and {@code destination} may be the same array.
+     *
+     * @param backgrounds Background colors to pick for
+     * @param candidates Which colors to pick from, at least one
+     * @param destination Where to write the picked colors, must be at least as long as {@code backgrounds}
+     */
+    public void getReadableColors(int[] backgrounds, int[] candidates, int[] destination) {
+        checkPaletteBuffers(backgrounds, destination);
+        if (candidates.length == 0) {
+            throw new RuntimeException("Cannot pick from an empty set of candidates");
+        }
+
+        for (int i = 0; i < backgrounds.length; i++) {
+            float background = getLuminance(backgrounds[i]);
+            int best = 0;
+            float bestRatio = 0;
+            for (int j = 0; j < candidates.length; j++) {
+                float ratio = contrastRatio(background, getLuminance(candidates[j]));
+                if (ratio > bestRatio) {
+                    bestRatio = ratio;
+                    best = j;
+                }
+            }
+            destination[i] = candidates[best];
+        }
+    }
+
+    /**
+     * Makes sure the palette destination buffer can hold all of the source colors.
+     */
+    private void checkPaletteBuffers(int[] source, int[] destination) {
+        if (destination.length < source.length) {
+            throw new RuntimeException("Destination palette size " + destination.length + " is smaller than the source size " + source.length);
+        }
+    }
+
     /**
      * Creates a new drawable (implementation of the Drawable object may vary depending on OS version).<br>
      * Drawable will be colored with given color, and clipped to match given boundaries.
@@ -339,25 +639,110 @@ public class Coloring {
 
     /**
      * Colors the given drawable to a specified color. Uses mode SRC_ATOP.<br>
-     * Automatically loads a good quality bitmap from the {@code resourceId} if it is valid.
+     * Automatically loads a good quality bitmap from the {@code resourceId} if it is valid. The bitmap is decoded as mutable and tinted in
+     * place, no copy is made. Decoding reuses pooled temp buffers, and bitmaps given back through {@link #releaseBitmap(Bitmap)} when
+     * their size and config fit.
      *
      * @param context Which context to use
      * @param resourceId Which drawable resource to load
      * @param color Which color to use
-     * @return A colored {@link Drawable} ready for use
+     * @return A colored {@link Drawable} ready for use, or {@code null} if the resource could not be decoded
      */
     public Drawable colorDrawable(Context context, int resourceId, int color) {
+        Resources resources = context.getResources();
         BitmapFactory.Options opts = new BitmapFactory.Options();
         opts.inDither = false; // disable dithering
-        //noinspection deprecation
-        opts.inPurgeable = true; // allocate pixels that could be freed by the system
-        //noinspection deprecation
-        opts.inInputShareable = true; // see javadoc
-        opts.inTempStorage = new byte[32 * 1024]; // temp storage - advice is to use 16K
         opts.inPreferQualityOverSpeed = false;
+        opts.inMutable = true; // tinted in place below
+        opts.inTempStorage = obtainTempStorage();
+
+        try {
+            opts.inJustDecodeBounds = true;
+            BitmapFactory.decodeResource(resources, resourceId, opts);
+            opts.inJustDecodeBounds = false;
+            opts.inBitmap = takePooledBitmap(opts.outWidth, opts.outHeight);
+
+            Bitmap bitmap;
+            try {
+                bitmap = BitmapFactory.decodeResource(resources, resourceId, opts);
+            } catch (IllegalArgumentException e) {
+                // pooled bitmap can't be decoded into after all, use a new one
+                opts.inBitmap = null;
+                bitmap = BitmapFactory.decodeResource(resources, resourceId, opts);
+            }
+            if (bitmap == null) {
+                Log.w(LOG_TAG, "Failed to decode resource " + resourceId);
+                return null;
+            }
+
+            new Canvas(bitmap).drawColor(color, SRC_ATOP);
+            return new BitmapDrawable(resources, bitmap);
+        } finally {
+            releaseTempStorage(opts.inTempStorage);
+        }
+    }
+
+    /**
+     * Gives a bitmap back to the decode pool, so that one of the next {@link #colorDrawable(Context, int, int)} calls can decode into it
+     * instead of allocating. The pool is bounded; when full, the bitmap is left to the garbage collector.<br>
+     * <b>Note</b>: Only release bitmaps that are not drawn anywhere anymore, their pixels will be overwritten.
+     *
+     * @param bitmap Which bitmap to give back, must be mutable
+     */
+    public void releaseBitmap(@Nullable Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled() || !bitmap.isMutable()) {
+            return;
+        }
+        synchronized (mDecodePoolLock) {
+            if (mBitmapPool.size() < DECODE_POOL_SIZE && !mBitmapPool.contains(bitmap)) {
+                mBitmapPool.add(bitmap);
+            }
+        }
+    }
+
+    /**
+     * Takes a pooled bitmap that can be decoded into. Before KitKat the size must match exactly, later a big enough allocation is enough.
+     */
+    @TargetApi(Build.VERSION_CODES.KITKAT)
+    @Nullable
+    private Bitmap takePooledBitmap(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+        synchronized (mDecodePoolLock) {
+            for (int i = 0; i < mBitmapPool.size(); i++) {
+                Bitmap candidate = mBitmapPool.get(i);
+                boolean fits;
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+                    fits = candidate.getAllocationByteCount() >= width * height * 4;
+                } else {
+                    fits = candidate.getWidth() == width && candidate.getHeight() == height
+                            && candidate.getConfig() == Bitmap.Config.ARGB_8888;
+                }
+                if (fits) {
+                    return mBitmapPool.remove(i);
+                }
+            }
+        }
+        return null;
+    }
 
-        Bitmap original = BitmapFactory.decodeResource(context.getResources(), resourceId, opts);
-        return colorDrawable(context, new BitmapDrawable(context.getResources(), original), color);
+    private byte[] obtainTempStorage() {
+        synchronized (mDecodePoolLock) {
+            byte[] storage = mTempStoragePool.poll();
+            if (storage != null) {
+                return storage;
+            }
+        }
+        return new byte[DECODE_TEMP_STORAGE];
+    }
+
+    private void releaseTempStorage(byte[] storage) {
+        synchronized (mDecodePoolLock) {
+            if (mTempStoragePool.size() < DECODE_POOL_SIZE) {
+                mTempStoragePool.offer(storage);
+            }
+        }
     }
 
     /**
@@ -482,6 +867,30 @@ public class Coloring {
         }
     }
 
+    /**
+     * Same as {@link #createStateDrawable(int, int, int, boolean)}, but drawables created with the same colors share one
+     * {@link Drawable.ConstantState}, so the state list and its gradients are built only once. Each returned drawable still has its own
+     * current state and bounds.
+     *
+     * @param normal Color for the idle state
+     * @param clicked Color for the clicked/pressed state
+     * @param checked Color for the checked/selected state
+     * @param shouldFade Set to true to enable the fading effect, false otherwise
+     * @return A new {@link StateListDrawable} instance sharing the constant state with others of the same colors
+     */
+    public Drawable createSharedStateDrawable(int normal, int clicked, int checked, boolean shouldFade) {
+        StateKey key = new StateKey(normal, clicked, checked, shouldFade);
+        Drawable.ConstantState state;
+        synchronized (mStateCacheLock) {
+            state = mStateCache.get(key);
+            if (state == null) {
+                state = createStateDrawable(normal, clicked, checked, shouldFade).getConstantState();
+                mStateCache.put(key, state);
+            }
+        }
+        return state.newDrawable();
+    }
+
     /**
      * Creates a new drawable using given parameters. States that should be provided are "normal",<br>
      * "clicked" (pressed) and "checked" (selected). All states are actually integer colors.<br>
@@ -514,6 +923,20 @@ public class Coloring {
         }
     }
 
+    /**
+     * Similar to {@link #createBackgroundDrawable(int, int, int, boolean)}, but before Lollipop the state drawables of the same colors
+     * share their constant state, see {@link #createSharedStateDrawable(int, int, int, boolean)}.
+     *
+     * @return A new background drawable instance
+     */
+    public Drawable createSharedBackgroundDrawable(int normal, int clicked, int checked, boolean shouldFade) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            return createRippleDrawable(normal, clicked, null);
+        } else {
+            return createSharedStateDrawable(normal, clicked, checked, shouldFade);
+        }
+    }
+
     /**
      * Similar to {@link #createContrastStateDrawable(Context, int, int, boolean, android.graphics.drawable.Drawable)} but using colors
      * only, no drawables.
@@ -681,25 +1104,225 @@ public class Coloring {
     }
 
     /**
-     * Calculates the contrasted color from the given one. If the color darkness is under<br>
-     * the {@link #BRIGHTNESS_THRESHOLD}, contrasted color is white. If the color darkness is<br>
-     * over the {@link #BRIGHTNESS_THRESHOLD}, contrasted color is black.
+     * Calculates the contrasted color from the given one, i.e. white or black, whichever has the higher contrast ratio against it (see
+     * {@link #getContrastRatio(int, int)}).
      *
      * @param color Calculating contrasted color to this one
-     * @return White or black, depending on the provided color's brightness
+     * @return White or black, depending on the provided color's luminance
      */
     public int getContrastColor(int color) {
-        int r = Color.red(color);
-        int g = Color.green(color);
-        int b = Color.blue(color);
+        return getLuminance(color) < LUMINANCE_THRESHOLD ? Color.WHITE : Color.BLACK;
+    }
 
-        // human eye is least sensitive to blue, then to red, then green; calculating:
-        int brightness = (b + r + r + g + g + g) / 6;
+    /**
+     * Calculates the relative luminance of the given color, as defined by WCAG 2.0. Channels are linearized through a lookup table.<br>
+     * <b>Note</b>: Alpha is ignored, blend translucent colors first (e.g. with {@link #alphaBlendWithWhite(int)}).
+     *
+     * @param color Which color to use
+     * @return Relative luminance, between {@code 0} for black and {@code 1} for white
+     */
+    public float getLuminance(int color) {
+        return 0.2126f * SRGB_TO_LINEAR[(color >> 16) & 0xFF] + 0.7152f * SRGB_TO_LINEAR[(color >> 8) & 0xFF]
+                + 0.0722f * SRGB_TO_LINEAR[color & 0xFF];
+    }
+
+    /**
+     * Calculates the contrast ratio between two colors, as defined by WCAG 2.0. Normal text should have a ratio of at least 4.5.
+     *
+     * @param first One of the colors, alpha is ignored
+     * @param second Other color, alpha is ignored
+     * @return Contrast ratio, between {@code 1} (same luminance) and {@code 21} (black and white)
+     */
+    public float getContrastRatio(int first, int second) {
+        return contrastRatio(getLuminance(first), getLuminance(second));
+    }
+
+    /**
+     * Returns the preferred color if it's readable enough on the given background, or the contrast color of the background otherwise.
+     *
+     * @param preferred Which color to use if possible
+     * @param background Background color to read the color on, alpha is ignored
+     * @param minContrastRatio Lowest acceptable contrast ratio, e.g. 4.5 for normal text
+     * @return Either the preferred color, or white or black
+     */
+    public int getReadableColor(int preferred, int background, float minContrastRatio) {
+        float backgroundLuminance = getLuminance(background);
+        if (contrastRatio(backgroundLuminance, getLuminance(preferred)) >= minContrastRatio) {
+            return preferred;
+        }
+        return backgroundLuminance < LUMINANCE_THRESHOLD ? Color.WHITE : Color.BLACK;
+    }
+
+    private static float contrastRatio(float firstLuminance, float secondLuminance) {
+        if (firstLuminance > secondLuminance) {
+            return (firstLuminance + 0.05f) / (secondLuminance + 0.05f);
+        }
+        return (secondLuminance + 0.05f) / (firstLuminance + 0.05f);
+    }
+
+    /**
+     * Cache key for the shared state drawables.
+     */
+    private static final class StateKey {
+
+        private final int mNormal;
+        private final int mClicked;
+        private final int mChecked;
+        private final boolean mShouldFade;
+
+        StateKey(int normal, int clicked, int checked, boolean shouldFade) {
+            mNormal = normal;
+            mClicked = clicked;
+            mChecked = checked;
+            mShouldFade = shouldFade;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof StateKey)) {
+                return false;
+            }
+            StateKey other = (StateKey) o;
+            return mNormal == other.mNormal && mClicked == other.mClicked && mChecked == other.mChecked && mShouldFade == other.mShouldFade;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = mNormal;
+            result = 31 * result + mClicked;
+            result = 31 * result + mChecked;
+            result = 31 * result + (mShouldFade ? 1 : 0);
+            return result;
+        }
+
+    }
+
+    /**
+     * A bounded, least recently used cache of decoded color strings. Colors are kept in an {@code int[]} next to the keys, so nothing is
+     * boxed. Keys are found by open addressing on the (cached) string hash; the table is kept at most half full. The least recently used
+     * entry is searched for only when a new string is added to a full cache, and that string is being parsed anyway.<br>
+     * <b>Note</b>: Not thread-safe, callers synchronize on the cache.
+     */
+    static final class DecodeCache {
+
+        private final int mMaxEntries;
+        private final String[] mKeys;
+        private final int[] mColors;
+        private final long[] mLastUsed;
+        private int mSize = 0;
+        private long mClock = 0;
+
+        DecodeCache(int maxEntries) {
+            mMaxEntries = maxEntries;
+            // smallest power of two that is at least twice the entry count
+            int capacity = Integer.highestOneBit(2 * maxEntries - 1) << 1;
+            mKeys = new String[capacity];
+            mColors = new int[capacity];
+            mLastUsed = new long[capacity];
+        }
+
+        /**
+         * Looks up the given string and marks it as recently used.
+         *
+         * @return Index of the cached color (see {@link #colorAt(int)}), or {@code -1} if the string is not cached
+         */
+        int find(String key) {
+            int mask = mKeys.length - 1;
+            for (int i = home(key, mask); mKeys[i] != null; i = (i + 1) & mask) {
+                if (mKeys[i].equals(key)) {
+                    mLastUsed[i] = ++mClock;
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        int colorAt(int index) {
+            return mColors[index];
+        }
+
+        int size() {
+            return mSize;
+        }
+
+        /**
+         * Caches the color of a string that is not cached yet, evicting the least recently used entry if the cache is full.
+         */
+        void put(String key, int color) {
+            insert(key, color, ++mClock);
+        }
+
+        /**
+         * Copies all entries of the given cache, keeping their order of use. Only the most recently used ones are kept if they don't fit.
+         */
+        void putAll(DecodeCache other) {
+            for (int i = 0; i < other.mKeys.length; i++) {
+                if (other.mKeys[i] != null) {
+                    insert(other.mKeys[i], other.mColors[i], other.mLastUsed[i]);
+                }
+            }
+            mClock = Math.max(mClock, other.mClock);
+        }
+
+        private void insert(String key, int color, long lastUsed) {
+            if (mSize == mMaxEntries) {
+                int eldest = findEldest();
+                if (mLastUsed[eldest] > lastUsed) {
+                    // only when copying, the new entry is older than everything kept
+                    return;
+                }
+                remove(eldest);
+            }
+
+            int mask = mKeys.length - 1;
+            int i = home(key, mask);
+            while (mKeys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            mKeys[i] = key;
+            mColors[i] = color;
+            mLastUsed[i] = lastUsed;
+            mSize++;
+        }
+
+        private int findEldest() {
+            int eldest = -1;
+            for (int i = 0; i < mKeys.length; i++) {
+                if (mKeys[i] != null && (eldest == -1 || mLastUsed[i] < mLastUsed[eldest])) {
+                    eldest = i;
+                }
+            }
+            return eldest;
+        }
+
+        /**
+         * Removes the entry at the given index, shifting the following entries back so no lookup sequence is broken.
+         */
+        private void remove(int index) {
+            int mask = mKeys.length - 1;
+            int hole = index;
+            mKeys[hole] = null;
+            mSize--;
+            for (int i = (hole + 1) & mask; mKeys[i] != null; i = (i + 1) & mask) {
+                // an entry can fill the hole only if the hole is between its home slot and its current slot
+                if (((i - home(mKeys[i], mask)) & mask) >= ((i - hole) & mask)) {
+                    mKeys[hole] = mKeys[i];
+                    mColors[hole] = mColors[i];
+                    mLastUsed[hole] = mLastUsed[i];
+                    mKeys[i] = null;
+                    hole = i;
+                }
+            }
+        }
+
+        private static int home(String key, int mask) {
+            int hash = key.hashCode();
+            return (hash ^ (hash >>> 16)) & mask;
+        }
 
-        if (brightness < BRIGHTNESS_THRESHOLD)
-            return Color.WHITE;
-        else
-            return Color.BLACK;
     }
 
 }
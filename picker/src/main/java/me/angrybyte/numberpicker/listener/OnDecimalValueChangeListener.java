@@ -0,0 +1,20 @@
+package me.angrybyte.numberpicker.listener;
+
+import me.angrybyte.numberpicker.view.ActualNumberPicker;
+
+/**
+ * A listener for {@link ActualNumberPicker} View in the fixed-point decimal mode. Values are delivered as scaled {@code long}s, i.e. with a
+ * scale of {@code 2}, value {@code 1.05} is delivered as {@code 105}.
+ */
+public interface OnDecimalValueChangeListener {
+
+    /**
+     * Invoked when the decimal value changes on the {@link ActualNumberPicker}. Remember to set this listener to the View.
+     *
+     * @param oldScaledValue The scaled value picker had before the change
+     * @param newScaledValue The scaled value picker has now, after the change
+     * @param scale How many decimal places are in the scaled values
+     */
+    void onDecimalValueChanged(long oldScaledValue, long newScaledValue, int scale);
+
+}
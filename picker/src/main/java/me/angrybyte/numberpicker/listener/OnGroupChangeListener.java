@@ -0,0 +1,20 @@
+package me.angrybyte.numberpicker.listener;
+
+import me.angrybyte.numberpicker.view.PickerGroup;
+
+/**
+ * A listener for {@link PickerGroup}. Gives one combined event per frame for all member pickers whose value changed, after the group
+ * constraints were applied.
+ */
+public interface OnGroupChangeListener {
+
+    /**
+     * Invoked at most once per frame when values of any of the group members change. Member listeners are already notified at this point.
+     *
+     * @param group The group whose members changed
+     * @param changedMask Which members changed: bit {@code i} is set if the member at index {@code i} changed, see
+     *            {@link PickerGroup#isChanged(int, int)}
+     */
+    void onGroupChanged(PickerGroup group, int changedMask);
+
+}
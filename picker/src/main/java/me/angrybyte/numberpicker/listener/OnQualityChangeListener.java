@@ -0,0 +1,19 @@
+package me.angrybyte.numberpicker.listener;
+
+import me.angrybyte.numberpicker.view.ActualNumberPicker;
+
+/**
+ * A listener for {@link ActualNumberPicker} View. Gives information about changes of the rendering quality level while the adaptive
+ * quality mode is enabled.
+ */
+public interface OnQualityChangeListener {
+
+    /**
+     * Invoked when the adaptive quality governor changes the rendering quality on the {@link ActualNumberPicker}.
+     *
+     * @param oldLevel The quality level picker had before the change, any of the {@link ActualNumberPicker.Quality} levels
+     * @param newLevel The quality level picker has now, after the change
+     */
+    void onQualityChanged(int oldLevel, int newLevel);
+
+}
@@ -2,36 +2,50 @@
 package me.angrybyte.numberpicker.view;
 
 import android.annotation.TargetApi;
+import android.content.ComponentCallbacks;
+import android.content.ComponentCallbacks2;
 import android.content.Context;
+import android.content.res.Configuration;
 import android.content.res.TypedArray;
-import android.graphics.BlurMaskFilter;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
+import android.graphics.LinearGradient;
 import android.graphics.Paint;
 import android.graphics.Point;
 import android.graphics.Rect;
 import android.graphics.RectF;
+import android.graphics.Shader;
+import android.graphics.drawable.ColorDrawable;
 import android.graphics.drawable.Drawable;
 import android.os.Build;
 import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.support.annotation.IntDef;
 import android.support.annotation.IntRange;
 import android.support.annotation.NonNull;
+import android.support.v4.view.ViewCompat;
 import android.text.TextPaint;
 import android.util.AttributeSet;
-import android.util.DisplayMetrics;
 import android.util.Log;
 import android.util.SparseArray;
+import android.util.TypedValue;
+import android.view.Choreographer;
+import android.view.InputDevice;
+import android.view.KeyEvent;
 import android.view.MotionEvent;
 import android.view.View;
-import android.view.WindowManager;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import me.angrybyte.numberpicker.BuildConfig;
 import me.angrybyte.numberpicker.Coloring;
 import me.angrybyte.numberpicker.R;
+import me.angrybyte.numberpicker.listener.OnDecimalValueChangeListener;
+import me.angrybyte.numberpicker.listener.OnQualityChangeListener;
 import me.angrybyte.numberpicker.listener.OnValueChangeListener;
 
 /**
@@ -43,35 +57,79 @@ public class ActualNumberPicker extends View {
     // @formatter:off
     @Retention(RetentionPolicy.SOURCE)
     @IntDef({ CONTROL_NONE, ARR_LEFT, ARR_RIGHT, FAST_ARR_LEFT, FAST_ARR_RIGHT })
-    public @interface Control {} // @formatter:on
+    public @interface Control {}
+
+    @Retention(RetentionPolicy.SOURCE)
+    @IntDef({ QUALITY_FULL, QUALITY_FEWER_BARS, QUALITY_NO_ANTI_ALIAS, QUALITY_NO_BLUR })
+    public @interface Quality {} // @formatter:on
+
+    /**
+     * Everything is drawn as configured.
+     */
+    public static final int QUALITY_FULL = 0;
+    /**
+     * Half of the bars are drawn.
+     */
+    public static final int QUALITY_FEWER_BARS = 1;
+    /**
+     * Half of the bars are drawn, without anti-aliasing.
+     */
+    public static final int QUALITY_NO_ANTI_ALIAS = 2;
+    /**
+     * Half of the bars are drawn, without anti-aliasing, and the control highlights are not blurred.
+     */
+    public static final int QUALITY_NO_BLUR = 3;
 
     private static final String TAG = ActualNumberPicker.class.getSimpleName();
     private static final int DEFAULT_BAR_COUNT = 11;
-    private static final int CONTROL_NONE = 0x00;
-    private static final int ARR_LEFT = 0xC1;
-    private static final int ARR_RIGHT = 0xC2;
-    private static final int FAST_ARR_LEFT = 0xF1;
-    private static final int FAST_ARR_RIGHT = 0xF2;
+    static final int CONTROL_NONE = 0x00;
+    static final int ARR_LEFT = 0xC1;
+    static final int ARR_RIGHT = 0xC2;
+    static final int FAST_ARR_LEFT = 0xF1;
+    static final int FAST_ARR_RIGHT = 0xF2;
     private static final int CONTROL_TEXT = 0xAA;
     private static final int[] STATE_NORMAL = new int[] {};
+    private static final Rect EMPTY_BOUNDS = new Rect();
+    private static final int MIN_BAR_OPACITY = 50;
+    private static final float MIN_CONTRAST_RATIO = 4.5f; // WCAG AA for normal text
+    private static final int FADE_SHADER_STOPS = 9;
+    private static final int SOURCE_ROTARY_ENCODER = 0x00400000; // InputDevice.SOURCE_ROTARY_ENCODER, API 26
+    private static final int AXIS_SCROLL = 26; // MotionEvent.AXIS_SCROLL, API 26
+    private static final int[] CONTROLS = new int[] {
+            ARR_LEFT, ARR_RIGHT, FAST_ARR_LEFT, FAST_ARR_RIGHT
+    };
 
     private Rect mTextBounds = new Rect(0, 0, 0, 0);
+    private char[] mTextChars = new char[FixedPoint.MAX_LENGTH];
     private Point mTextDimens = new Point(0, 0);
+    // created on first use, see ensureFeatures()
     private TextPaint mTextPaint;
+    private int mTextColor = Color.DKGRAY;
     private float mTextSize = -1.0f;
     private boolean mShowText = true;
+    private LabelWheel mLabelWheel;
     private boolean mDrawOverText = false;
     private boolean mDrawOverControls = true;
 
     private Paint mBarPaint;
     private RectF mBarBounds = new RectF(0, 0, 0, 0);
     private int mBarCount = DEFAULT_BAR_COUNT;
+    private boolean mAutoBarCount = false;
+    private int mAutoBarSpacing = 0;
     private int mMinBarWidth = 1;
     private int mBarWidth = mMinBarWidth;
+    private int mBarColor = Color.DKGRAY;
     private boolean mShowBars = true;
+    private boolean mShaderFade = false;
+    private boolean mGradientBars = false;
+    private Shader mBarShader;
+    private int mBarShaderWidth = -1;
 
-    private Paint mHighlightPaint;
     private boolean mShowHighlight = true;
+    private PickerStyle mStyle;
+    // a reference to the style is held only while attached
+    private boolean mStyleRetained = false;
+    private int mIconGeneration = 0;
 
     private float mDensityFactor = 1;
     private float mLastX = Float.MAX_VALUE;
@@ -88,18 +146,76 @@ public class ActualNumberPicker extends View {
     private int mMaxValue = 1000;
     private int mValue = 50;
 
+    // null for the default linear mapping
+    private ValueScale mValueScale;
+    private ScaleTable mScaleTable;
+
     @Control
     // one of the constants from the top
     private int mSelectedControl = CONTROL_NONE;
     private int mMaxControlSize = mMinHeight;
     private int mSelectionColor = Color.GRAY;
 
+    private static Handler sMainHandler;
+
     private Handler mHandler;
     private SparseArray<Drawable> mControlIcons = new SparseArray<>(4);
-    private SparseArray<Drawable> mControlsBacks = new SparseArray<>(4);
+    // one pressed-state background, moved to the active control; hit bounds are kept for each control
+    private Drawable mControlBack;
+    private SparseArray<Rect> mControlHitBounds = new SparseArray<>(4);
+
+    // icon and hit bounds for each control
+    private LayoutCache mLayoutCache = new LayoutCache(CONTROLS.length * 2);
+    private LayoutCache.Entry mCurrentLayout;
+    private int mLayoutGeneration = 0;
 
     private OnValueChangeListener mListener;
 
+    // fixed-point decimal mode, values are step indices and map to [mScaledMin + index * mScaledStep]
+    private boolean mDecimalMode = false;
+    private long mScaledMin = 0;
+    private long mScaledStep = 1;
+    private int mScale = 0;
+    private OnDecimalValueChangeListener mDecimalListener;
+
+    // adaptive quality, see setAdaptiveQuality()
+    private QualityGovernor mQualityGovernor;
+    private FrameMeter mFrameMeter;
+    private OnQualityChangeListener mQualityListener;
+
+    // cached idle appearance, see setIdleSnapshotEnabled()
+    private boolean mIdleSnapshotEnabled = false;
+    private boolean mIdleSnapshotValid = false;
+    private Bitmap mIdleSnapshot;
+    private Canvas mIdleSnapshotCanvas;
+    private ComponentCallbacks mMemoryCallbacks;
+
+    @Control
+    private int mActiveBackground = CONTROL_NONE;
+
+    // thread-safe copy of value and range, see getState()
+    private PickerState mState;
+    // the state as last published or applied by the picker, tells which fields the picker itself changed
+    private PickerState.Snapshot mStateBase;
+    private final AtomicBoolean mStateSyncScheduled = new AtomicBoolean(false);
+
+    // set while this picker is a member of a PickerGroup, which then drives redraws and dispatch
+    private PickerGroup mGroup;
+    private boolean mGroupChangePending = false;
+    private int mGroupOldValue = 0;
+    private boolean mGroupRedrawPending = false;
+
+    // set when a gesture was cancelled by rebind(), until the next down event
+    private boolean mGestureCancelled = false;
+
+    // drag extrapolation for drawing only, see setPredictiveTouch()
+    private TouchPredictor mTouchPredictor;
+
+    // keyboard, wheel and rotary steps waiting for the next frame
+    private float mPendingSteps = 0;
+    private int mPendingFastSteps = 0;
+    private boolean mStepsScheduled = false;
+
     public ActualNumberPicker(Context context) {
         super(context);
         init(context, null, 0, 0);
@@ -133,10 +249,13 @@ public class ActualNumberPicker extends View {
      */
     private void init(Context context, AttributeSet attrs, int defStyleAttr, int defStyleRes) {
         setLayerType(View.LAYER_TYPE_SOFTWARE, null);
-        mHandler = new Handler();
+        mHandler = getMainHandler();
         setClickable(true);
         TypedArray attributes = context.obtainStyledAttributes(attrs, R.styleable.ActualNumberPicker, defStyleAttr, defStyleRes);
 
+        // focusable by default for key navigation, unless turned off in the layout
+        setFocusable(attributes.getBoolean(R.styleable.ActualNumberPicker_android_focusable, true));
+
         mShowBars = attributes.getBoolean(R.styleable.ActualNumberPicker_show_bars, true);
         mShowControls = attributes.getBoolean(R.styleable.ActualNumberPicker_show_controls, true);
         mShowFastControls = attributes.getBoolean(R.styleable.ActualNumberPicker_show_fast_controls, true);
@@ -144,40 +263,29 @@ public class ActualNumberPicker extends View {
         mDrawOverText = attributes.getBoolean(R.styleable.ActualNumberPicker_draw_over_text, false);
         mDrawOverControls = attributes.getBoolean(R.styleable.ActualNumberPicker_draw_over_controls, true);
 
-        int barsColor = attributes.getColor(R.styleable.ActualNumberPicker_bar_color, Color.DKGRAY);
+        mBarColor = attributes.getColor(R.styleable.ActualNumberPicker_bar_color, Color.DKGRAY);
         mBarPaint = new Paint();
         mBarPaint.setAntiAlias(true);
         mBarPaint.setStyle(Paint.Style.FILL);
-        mBarPaint.setColor(barsColor);
+        mBarPaint.setColor(mBarColor);
+        mShaderFade = attributes.getBoolean(R.styleable.ActualNumberPicker_shader_fade, false);
+        mGradientBars = attributes.getBoolean(R.styleable.ActualNumberPicker_gradient_bars, false);
+        mIdleSnapshotEnabled = attributes.getBoolean(R.styleable.ActualNumberPicker_idle_snapshot, false);
 
         mShowHighlight = attributes.getBoolean(R.styleable.ActualNumberPicker_show_highlight, true);
         int highlightColor = attributes.getColor(R.styleable.ActualNumberPicker_highlight_color, Color.LTGRAY);
-        mHighlightPaint = new Paint();
-        mHighlightPaint.setAntiAlias(true);
-        mHighlightPaint.setStyle(Paint.Style.FILL);
-        mHighlightPaint.setColor(highlightColor);
-        mHighlightPaint.setMaskFilter(new BlurMaskFilter(10, BlurMaskFilter.Blur.NORMAL));
-        mHighlightPaint.setAlpha(100);
 
         mSelectionColor = attributes.getColor(R.styleable.ActualNumberPicker_selection_color, 0xB0444444);
 
-        int textColor = attributes.getColor(R.styleable.ActualNumberPicker_text_color, Color.DKGRAY);
-        mTextPaint = new TextPaint();
-        mTextPaint.setAntiAlias(true);
-        mTextPaint.setTextAlign(Paint.Align.LEFT);
-        mTextPaint.setLinearText(true);
-        if (Build.VERSION.SDK_INT > Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
-            mTextPaint.setHinting(Paint.HINTING_ON);
-        }
-        mTextPaint.setStyle(Paint.Style.FILL);
-        mTextPaint.setColor(textColor);
-
+        // default text and icon colors stay dark gray unless that's hard to read on the background
+        int defaultColor = Coloring.get().getReadableColor(Color.DKGRAY, resolveBackgroundColor(context), MIN_CONTRAST_RATIO);
+        mTextColor = attributes.getColor(R.styleable.ActualNumberPicker_text_color, defaultColor);
         mTextSize = attributes.getDimension(R.styleable.ActualNumberPicker_text_size, mTextSize);
-        if (mTextSize != -1.0f) {
-            mTextPaint.setTextSize(mTextSize);
-        }
 
         mShowText = attributes.getBoolean(R.styleable.ActualNumberPicker_show_text, mShowText);
+        if (attributes.getBoolean(R.styleable.ActualNumberPicker_show_neighbors, false)) {
+            mLabelWheel = new LabelWheel(this);
+        }
 
         mMinValue = attributes.getInt(R.styleable.ActualNumberPicker_min_value, mMinValue);
         mMaxValue = attributes.getInt(R.styleable.ActualNumberPicker_max_value, mMaxValue);
@@ -190,71 +298,210 @@ public class ActualNumberPicker extends View {
             throw new RuntimeException("Cannot use value " + mValue + " because it is out of range");
         }
 
+        if (attributes.getInt(R.styleable.ActualNumberPicker_value_scale, 0) == 1) {
+            setValueScale(ValueScale.LOGARITHMIC);
+        }
+
+        mState = new PickerState(mValue, mMinValue, mMaxValue);
+        mStateBase = mState.get();
+        mState.setObserver(new PickerState.Observer() {
+            @Override
+            public void onStateChanged() {
+                scheduleStateSync();
+            }
+        });
+
+        // without an explicit count, bar count scales with the view width
+        mAutoBarCount = !attributes.hasValue(R.styleable.ActualNumberPicker_bars_count);
         mBarCount = attributes.getInteger(R.styleable.ActualNumberPicker_bars_count, DEFAULT_BAR_COUNT);
         if (mBarCount < 3) {
             mBarCount = DEFAULT_BAR_COUNT;
         }
 
-        mMinBarWidth = context.getResources().getDimensionPixelSize(R.dimen.min_bar_width);
-        mBarWidth = attributes.getDimensionPixelSize(R.styleable.ActualNumberPicker_bar_width, mMinBarWidth);
-        if (mBarWidth < mMinBarWidth) {
-            mBarWidth = mMinBarWidth;
+        if (attributes.getBoolean(R.styleable.ActualNumberPicker_predictive_touch, false)) {
+            mTouchPredictor = new TouchPredictor();
+        }
+
+        if (attributes.getBoolean(R.styleable.ActualNumberPicker_adaptive_quality, false)) {
+            mQualityGovernor = new QualityGovernor();
         }
 
-        loadControlIcons(attributes, context);
+        int barWidth = attributes.getDimensionPixelSize(R.styleable.ActualNumberPicker_bar_width, -1);
+
+        int controlsColor = attributes.getColor(R.styleable.ActualNumberPicker_controls_color, defaultColor);
+        int fastControlsColor = attributes.getColor(R.styleable.ActualNumberPicker_fast_controls_color, defaultColor);
 
         attributes.recycle();
 
-        // update density and metrics/dimensions
-        WindowManager manager = (WindowManager) context.getSystemService(Context.WINDOW_SERVICE);
-        int density; // LDPI is 120
-        DisplayMetrics metrics = new DisplayMetrics();
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
-            manager.getDefaultDisplay().getRealMetrics(metrics);
-        } else {
-            manager.getDefaultDisplay().getMetrics(metrics);
+        // shared icons, highlight paint and density for all pickers that look the same
+        mStyle = PickerStyle.get(context, controlsColor, fastControlsColor, highlightColor);
+        mDensityFactor = mStyle.getDensityFactor();
+
+        // dimensions are resolved once per style, not on every inflation
+        mMinBarWidth = mStyle.getMinBarWidth();
+        mBarWidth = Math.max(barWidth, mMinBarWidth);
+        mAutoBarSpacing = mStyle.getAutoBarSpacing();
+        mMinHeight = mStyle.getMinHeight();
+        mMaxControlSize = mStyle.getControlSize();
+
+        for (int control : CONTROLS) {
+            mControlHitBounds.put(control, new Rect());
         }
-        density = metrics.densityDpi;
-        mDensityFactor = density / DisplayMetrics.DENSITY_LOW; // will be 1, 1.2, 1.5... etc
+        ensureFeatures();
+        // control positions are calculated on the first layout pass, the view has no size yet
+    }
 
-        mControlsBacks.put(ARR_LEFT, createControlBackground());
-        mControlsBacks.put(ARR_RIGHT, createControlBackground());
-        mControlsBacks.put(FAST_ARR_LEFT, createControlBackground());
-        mControlsBacks.put(FAST_ARR_RIGHT, createControlBackground());
+    /**
+     * Creates the resources of the enabled optional features: the text paint, the control icons and the control background. Disabled
+     * features cost nothing, and enabling one later creates only what it needs.
+     */
+    private void ensureFeatures() {
+        if (mShowText && mTextPaint == null) {
+            mTextPaint = new TextPaint();
+            mTextPaint.setAntiAlias(true);
+            mTextPaint.setTextAlign(Paint.Align.LEFT);
+            mTextPaint.setLinearText(true);
+            if (Build.VERSION.SDK_INT > Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
+                mTextPaint.setHinting(Paint.HINTING_ON);
+            }
+            mTextPaint.setStyle(Paint.Style.FILL);
+            mTextPaint.setColor(mTextColor);
+            if (mTextSize != -1.0f) {
+                mTextPaint.setTextSize(mTextSize);
+            }
+        }
 
-        mMinHeight = context.getResources().getDimensionPixelSize(R.dimen.min_height);
-        mMaxControlSize = context.getResources().getDimensionPixelSize(R.dimen.control_size);
-        calculateControlPositions();
+        if (mIconGeneration != mStyle.getGeneration()) {
+            // the style dropped its icons since these were created
+            mControlIcons.clear();
+            mIconGeneration = mStyle.getGeneration();
+        }
+        if (mShowControls) {
+            loadControlIcon(ARR_LEFT);
+            loadControlIcon(ARR_RIGHT);
+        }
+        if (mShowFastControls) {
+            loadControlIcon(FAST_ARR_LEFT);
+            loadControlIcon(FAST_ARR_RIGHT);
+        }
+        if ((mShowControls || mShowFastControls) && mControlBack == null) {
+            mControlBack = createControlBackground();
+            moveControlBackground();
+        }
     }
 
     /**
-     * Loads all resource icons (arrows) to the sparse array.
+     * Finds the color the picker is drawn over: the view's own background if it's a plain color, or the theme's background color.
      *
-     * @param attributes Which typed array to use to get the colors from
-     * @param context Which context to use for resources
+     * @param context Which context to use for the theme
+     * @return An opaque background color, white if unknown
+     */
+    private int resolveBackgroundColor(Context context) {
+        int color = Color.WHITE;
+        if (getBackground() instanceof ColorDrawable) {
+            color = ((ColorDrawable) getBackground()).getColor();
+        } else {
+            TypedValue value = new TypedValue();
+            if (context.getTheme().resolveAttribute(android.R.attr.colorBackground, value, true)
+                    && value.type >= TypedValue.TYPE_FIRST_COLOR_INT && value.type <= TypedValue.TYPE_LAST_COLOR_INT) {
+                color = value.data;
+            }
+        }
+        return Coloring.get().alphaBlendWithWhite(color);
+    }
+
+    /**
+     * Returns the {@link Handler} shared by all pickers, bound to the main looper.
+     */
+    private static Handler getMainHandler() {
+        if (sMainHandler == null) {
+            sMainHandler = new Handler(Looper.getMainLooper());
+        }
+        return sMainHandler;
+    }
+
+    /**
+     * Loads the icons of the visible controls (arrows) to the sparse array, dropping the previous ones. Icons are new drawable instances
+     * sharing the tinted bitmaps of the current {@link PickerStyle}.
      */
-    private void loadControlIcons(@NonNull TypedArray attributes, @NonNull Context context) {
-        int controlsColor = attributes.getColor(R.styleable.ActualNumberPicker_controls_color, Color.DKGRAY);
-        // noinspection deprecation
-        Drawable arrLeft = context.getResources().getDrawable(R.drawable.ic_keyboard_arrow_left_black_24dp);
-        arrLeft = Coloring.get().colorDrawable(context, arrLeft, controlsColor);
-        mControlIcons.put(ARR_LEFT, arrLeft);
+    private void loadControlIcons() {
+        mControlIcons.clear();
+        mIconGeneration = mStyle.getGeneration();
+        ensureFeatures();
+    }
 
-        // noinspection deprecation
-        Drawable arrRight = context.getResources().getDrawable(R.drawable.ic_keyboard_arrow_right_black_24dp);
-        arrRight = Coloring.get().colorDrawable(context, arrRight, controlsColor);
-        mControlIcons.put(ARR_RIGHT, arrRight);
+    /**
+     * Loads the given control icon, unless it's already loaded.
+     */
+    private void loadControlIcon(@Control int control) {
+        if (mControlIcons.get(control) == null) {
+            mControlIcons.put(control, mStyle.newControlIcon(control));
+        }
+    }
 
-        int fastControlsColor = attributes.getColor(R.styleable.ActualNumberPicker_fast_controls_color, Color.DKGRAY);
-        // noinspection deprecation
-        Drawable fastArrLeft = context.getResources().getDrawable(R.drawable.ic_keyboard_2arrows_left_black_24dp);
-        fastArrLeft = Coloring.get().colorDrawable(context, fastArrLeft, fastControlsColor);
-        mControlIcons.put(FAST_ARR_LEFT, fastArrLeft);
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        updateRefreshRate();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
+            if (mMemoryCallbacks == null) {
+                mMemoryCallbacks = new ComponentCallbacks2() {
+                    @Override
+                    public void onTrimMemory(int level) {
+                        if (level >= TRIM_MEMORY_RUNNING_LOW) {
+                            releaseIdleSnapshot();
+                        }
+                    }
 
-        // noinspection deprecation
-        Drawable fastArrRight = context.getResources().getDrawable(R.drawable.ic_keyboard_2arrows_right_black_24dp);
-        fastArrRight = Coloring.get().colorDrawable(context, fastArrRight, fastControlsColor);
-        mControlIcons.put(FAST_ARR_RIGHT, fastArrRight);
+                    @Override
+                    public void onConfigurationChanged(Configuration newConfig) {}
+
+                    @Override
+                    public void onLowMemory() {
+                        releaseIdleSnapshot();
+                    }
+                };
+            }
+            getContext().getApplicationContext().registerComponentCallbacks(mMemoryCallbacks);
+        }
+        if (!mStyleRetained) {
+            mStyle.retain();
+            mStyleRetained = true;
+        }
+        reloadStaleIcons();
+    }
+
+    /**
+     * Reloads the control icons if the style dropped (and pooled) their bitmaps since they were created, e.g. while this picker was
+     * detached. Stale icons must never be drawn, their pixels may already belong to another bitmap.
+     */
+    private void reloadStaleIcons() {
+        if (mIconGeneration != mStyle.getGeneration()) {
+            ensureFeatures();
+            mLayoutGeneration++;
+            if (mWidth > 0 && mHeight > 0) {
+                updateLayout();
+            }
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        mHandler.removeCallbacks(mInvalidator);
+        removeCallbacks(mStepsApplier);
+        stopFrameMeter();
+        releaseIdleSnapshot();
+        if (mMemoryCallbacks != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
+            getContext().getApplicationContext().unregisterComponentCallbacks(mMemoryCallbacks);
+        }
+        mStepsScheduled = false;
+        mPendingSteps = 0;
+        mPendingFastSteps = 0;
+        if (mStyleRetained) {
+            mStyle.release();
+            mStyleRetained = false;
+        }
+        super.onDetachedFromWindow();
     }
 
     /**
@@ -266,6 +513,151 @@ public class ActualNumberPicker extends View {
         mListener = listener;
     }
 
+    /**
+     * Sets the {@link OnDecimalValueChangeListener} to this number picker. It is notified only in the fixed-point decimal mode.
+     *
+     * @param listener Which listener to set
+     */
+    public void setDecimalListener(OnDecimalValueChangeListener listener) {
+        mDecimalListener = listener;
+    }
+
+    /**
+     * Switches the picker to the fixed-point decimal mode. All values are scaled {@code long}s, e.g. for a 0.05 step between 0 and 10, use
+     * {@code setDecimalValues(0, 1000, 5, 2, 500)}. Mapping, snapping and text formatting use integer arithmetic only.<br>
+     * <b>Note</b>: In this mode, {@link #getValue()}, {@link #getMinValue()} and {@link #getMaxValue()} (and the {@link PickerState}) work
+     * with step indices; use {@link #getDecimalValue()} for the actual value. This also applies to {@link #setMinValue(int)},
+     * {@link #setMaxValue(int)} and the {@link Editor}. Switching is a reconfiguration, not a value change, so pending notifications,
+     * state syncs, queued steps and any gesture in progress are cancelled, and the listeners are not notified. Use
+     * {@link #rebind(int, int, int)} to go back to the integer mode. Must be called on the main thread.
+     *
+     * @param scaledMin Minimum value, scaled
+     * @param scaledMax Maximum value, scaled; must be reachable from {@code scaledMin} in whole steps
+     * @param scaledStep Difference between two neighbor values, scaled; must be positive
+     * @param scale How many decimal places are in the scaled values, between 0 and 18
+     * @param scaledValue Which value to select, scaled; snapped to the nearest step
+     */
+    public void setDecimalValues(long scaledMin, long scaledMax, long scaledStep, @IntRange(from = 0, to = FixedPoint.MAX_SCALE) int scale,
+            long scaledValue) {
+        if (!isMainThread()) {
+            throw new RuntimeException("Cannot switch to the decimal mode outside of the main thread");
+        }
+        if (scale < 0 || scale > FixedPoint.MAX_SCALE) {
+            throw new RuntimeException("Cannot use scale " + scale + ", it must be between 0 and " + FixedPoint.MAX_SCALE);
+        }
+        if (scaledStep <= 0) {
+            throw new RuntimeException("Cannot use step " + scaledStep + ", it must be positive");
+        }
+        if (scaledMax <= scaledMin) {
+            throw new RuntimeException("Cannot use max_value " + scaledMax + " because the min_value is " + scaledMin);
+        }
+        // a negative range means the difference overflowed
+        long range = scaledMax - scaledMin;
+        if (range < 0 || range % scaledStep != 0 || range / scaledStep > Integer.MAX_VALUE) {
+            throw new RuntimeException("Cannot use range [" + scaledMin + ", " + scaledMax + "] with step " + scaledStep);
+        }
+
+        int maxIndex = (int) (range / scaledStep);
+        cancelPendingWork();
+        mDecimalMode = true;
+        mScaledMin = scaledMin;
+        mScaledStep = scaledStep;
+        mScale = scale;
+
+        // everything switches at once and nobody is notified
+        mMinValue = 0;
+        mMaxValue = maxIndex;
+        mValue = FixedPoint.snap(scaledValue, scaledMin, scaledStep, maxIndex);
+        mDelta = 0;
+        if (mLabelWheel != null) {
+            mLabelWheel.clearLabels();
+            mLabelWheel.reset();
+        }
+        // writes made for the previous range are meaningless as step indices, so the state is replaced instead of merged
+        mStateBase = mState.replace(mValue, mMinValue, mMaxValue);
+        dropIdleSnapshot();
+        invalidate();
+    }
+
+    /**
+     * Selects the given decimal value, snapped to the nearest step and restored into the range. Only for the fixed-point decimal mode.
+     *
+     * @param scaledValue Which value to select, scaled
+     */
+    public void setDecimalValue(long scaledValue) {
+        if (!mDecimalMode) {
+            throw new RuntimeException("Picker is not in the decimal mode, see setDecimalValues()");
+        }
+        setValue(FixedPoint.snap(scaledValue, mScaledMin, mScaledStep, mMaxValue));
+    }
+
+    /**
+     * @return Current value, scaled by {@code 10^}{@link #getScale()}; in the integer mode this is the same as {@link #getValue()}
+     */
+    public long getDecimalValue() {
+        return toDecimal(mValue);
+    }
+
+    /**
+     * @return How many decimal places are in the scaled decimal values, {@code 0} in the integer mode
+     */
+    public int getScale() {
+        return mScale;
+    }
+
+    private long toDecimal(int value) {
+        return mDecimalMode ? FixedPoint.valueAt(value, mScaledMin, mScaledStep) : value;
+    }
+
+    /**
+     * Sets the scale used to map drag positions and fast control steps to values, e.g. {@link ValueScale#LOGARITHMIC} for huge ranges.
+     * Mappings are precomputed when the range or the view width changes, so per-event mapping stays a constant-time lookup.
+     *
+     * @param scale Which scale to use, {@code null} or {@link ValueScale#LINEAR} for the default linear mapping
+     */
+    public void setValueScale(ValueScale scale) {
+        if (scale == null || scale == ValueScale.LINEAR) {
+            mValueScale = null;
+            mScaleTable = null;
+        } else {
+            mValueScale = scale;
+            if (mScaleTable == null) {
+                mScaleTable = new ScaleTable();
+            }
+        }
+    }
+
+    /**
+     * @return The scale used to map drag positions and fast control steps to values
+     */
+    @NonNull
+    public ValueScale getValueScale() {
+        return mValueScale == null ? ValueScale.LINEAR : mValueScale;
+    }
+
+    /**
+     * @return The scale table, up to date with the current range and width; only when a non-linear scale is used
+     */
+    private ScaleTable getScaleTable() {
+        mScaleTable.update(mValueScale, mWidth, mMinValue, mMaxValue);
+        return mScaleTable;
+    }
+
+    /**
+     * Moves the given value by a number of fast steps, 10% of the picker each, and restores it into the range.
+     *
+     * @param value Where to start from
+     * @param steps How many fast steps to go, negative to go back
+     * @return The new value
+     */
+    private int fastStep(int value, int steps) {
+        if (mValueScale == null || mWidth <= 0) {
+            long target = (long) value + (long) steps * ((mMaxValue - mMinValue) / 10);
+            return (int) Math.max(mMinValue, Math.min(mMaxValue, target));
+        }
+        return getScaleTable().fastStep(value, steps);
+    }
+
     /**
      * @return Maximum number allowed on this picker
      */
@@ -288,11 +680,248 @@ public class ActualNumberPicker extends View {
     }
 
     /**
-     * Sets the minimum value to this number picker.
+     * Returns the thread-safe state model of this picker. The model can be read and written from any thread; the picker applies the latest
+     * state at most once per frame.
+     *
+     * @return The state model, never {@code null}
+     */
+    @NonNull
+    public PickerState getState() {
+        return mState;
+    }
+
+    /**
+     * Starts a batch of configuration changes. Nothing is applied until {@link Editor#apply()} is called, and then all changes are applied
+     * at once: the text size and control positions are recomputed once, layout and redraw are requested once, and the listener is
+     * notified at most once.
+     *
+     * @return A new {@link Editor}, initialized with the current configuration
+     */
+    @NonNull
+    public Editor edit() {
+        return new Editor(this);
+    }
+
+    /**
+     * Switches to the style with the given colors and reloads the control icons, unless the current style already has these colors.
+     * Control positions need to be recalculated after a switch.
+     *
+     * @return {@code True} if the style was switched
+     */
+    private boolean swapStyle(int controlsColor, int fastControlsColor, int highlightColor) {
+        if (controlsColor == mStyle.getControlsColor() && fastControlsColor == mStyle.getFastControlsColor()
+                && highlightColor == mStyle.getHighlightColor()) {
+            return false;
+        }
+
+        PickerStyle style = PickerStyle.get(getContext(), controlsColor, fastControlsColor, highlightColor);
+        if (mStyleRetained) {
+            style.retain();
+            mStyle.release();
+        }
+        mStyle = style;
+        loadControlIcons();
+        return true;
+    }
+
+    /**
+     * Re-binds this picker to a new value and range, e.g. when its {@code RecyclerView} row is recycled. All resources are reused. Pending
+     * notifications, state syncs, queued steps and any gesture in progress from the previous binding are cancelled, and the listeners are
+     * not notified about the new value. A picker in the fixed-point decimal mode (see {@link #setDecimalValues}) goes back to the integer
+     * mode.<br>
+     * <b>Note</b>: Must be called on the main thread.
+     *
+     * @param minValue Minimum value to display by the number picker
+     * @param maxValue Maximum value to display by the number picker
+     * @param value Which value to select, must be in the range
+     */
+    public void rebind(int minValue, int maxValue, int value) {
+        rebind(minValue, maxValue, value, mStyle.getControlsColor(), mStyle.getFastControlsColor(), mStyle.getHighlightColor());
+    }
+
+    /**
+     * Same as {@link #rebind(int, int, int)}, also switching to the given control colors. Also leaves the fixed-point decimal mode.
+     * Nothing is allocated when the colors (and thus the {@link PickerStyle}) don't change.
+     *
+     * @param minValue Minimum value to display by the number picker
+     * @param maxValue Maximum value to display by the number picker
+     * @param value Which value to select, must be in the range
+     * @param controlsColor Color of the arrows
+     * @param fastControlsColor Color of the double arrows
+     * @param highlightColor Color of the highlight circles behind the controls
+     */
+    public void rebind(int minValue, int maxValue, int value, int controlsColor, int fastControlsColor, int highlightColor) {
+        if (!isMainThread()) {
+            throw new RuntimeException("Cannot rebind the picker outside of the main thread");
+        }
+        if (maxValue <= minValue) {
+            throw new RuntimeException("Cannot use max_value " + maxValue + " because the min_value is " + minValue);
+        }
+        if (value < minValue || value > maxValue) {
+            throw new RuntimeException("Cannot use value " + value + " because it is out of range");
+        }
+
+        // nothing from the previous binding may reach the listeners or the new state
+        cancelPendingWork();
+
+        if (mDecimalMode) {
+            mDecimalMode = false;
+            mScaledMin = 0;
+            mScaledStep = 1;
+            mScale = 0;
+            if (mLabelWheel != null) {
+                mLabelWheel.clearLabels();
+            }
+        }
+        mMinValue = minValue;
+        mMaxValue = maxValue;
+        mValue = value;
+        mDelta = 0;
+        if (mLabelWheel != null) {
+            mLabelWheel.reset();
+        }
+        // unsynced writes belong to the previous binding, so the state is replaced instead of merged
+        mStateBase = mState.replace(mValue, mMinValue, mMaxValue);
+
+        if (swapStyle(controlsColor, fastControlsColor, highlightColor)) {
+            mLayoutGeneration++;
+            if (mWidth > 0 && mHeight > 0) {
+                updateLayout();
+            }
+        }
+        dropIdleSnapshot();
+        invalidate();
+    }
+
+    /**
+     * Cancels pending notifications, state syncs, queued steps and any gesture in progress, before the picker is reconfigured.
+     */
+    private void cancelPendingWork() {
+        mHandler.removeCallbacksAndMessages(this);
+        mHandler.removeCallbacks(mInvalidator);
+        mHandler.removeCallbacks(mStateSyncPoster);
+        removeCallbacks(mStateSyncer);
+        mStateSyncScheduled.set(false);
+        removeCallbacks(mStepsApplier);
+        mStepsScheduled = false;
+        mPendingSteps = 0;
+        mPendingFastSteps = 0;
+        mGroupChangePending = false;
+        cancelGesture();
+    }
+
+    /**
+     * Drops the touch gesture in progress, if any. The rest of its events are ignored until the next {@link MotionEvent#ACTION_DOWN}.
+     */
+    private void cancelGesture() {
+        if (mSelectedControl == CONTROL_NONE && mLastX == Float.MAX_VALUE) {
+            return;
+        }
+
+        mGestureCancelled = true;
+        mSelectedControl = CONTROL_NONE;
+        mLastX = Float.MAX_VALUE;
+        mActiveBackground = CONTROL_NONE;
+        if (mControlBack != null) {
+            mControlBack.setState(STATE_NORMAL);
+            mControlBack.jumpToCurrentState();
+        }
+        if (mTouchPredictor != null) {
+            mTouchPredictor.reset();
+        }
+        if (getParent() != null) {
+            getParent().requestDisallowInterceptTouchEvent(false);
+        }
+        setPressed(false);
+    }
+
+    /**
+     * Applies the given editor to this picker, see {@link Editor#apply()}. The editor is already validated.
+     */
+    private void applyEditor(Editor editor) {
+        int oldValue = mValue;
+        mMinValue = editor.mMinValue;
+        mMaxValue = editor.mMaxValue;
+        if (editor.mValue != mValue) {
+            mValue = editor.mValue;
+            mDelta = 0;
+            mLastX = Float.MAX_VALUE;
+            if (mLabelWheel != null) {
+                mLabelWheel.reset();
+            }
+        }
+
+        mShowText = editor.mShowText;
+        mShowBars = editor.mShowBars;
+        mShowControls = editor.mShowControls;
+        mShowFastControls = editor.mShowFastControls;
+        mShowHighlight = editor.mShowHighlight;
+        mDrawOverText = editor.mDrawOverText;
+        mDrawOverControls = editor.mDrawOverControls;
+
+        mTextColor = editor.mTextColor;
+        mTextSize = editor.mTextSize;
+        if (mTextPaint != null) {
+            mTextPaint.setColor(mTextColor);
+            if (mTextSize != -1.0f) {
+                mTextPaint.setTextSize(mTextSize);
+            }
+        }
+
+        if (editor.mBarColor != mBarColor) {
+            mBarColor = editor.mBarColor;
+            mBarShader = null;
+            mBarShaderWidth = -1;
+            mBarPaint.setShader(null);
+            mBarPaint.setColor(mBarColor);
+        }
+        mAutoBarCount = editor.mAutoBarCount;
+        mBarCount = editor.mBarCount;
+        mBarWidth = Math.max(editor.mBarWidth, mMinBarWidth);
+
+        if (editor.mSelectionColor != mSelectionColor) {
+            mSelectionColor = editor.mSelectionColor;
+            if (mControlBack != null) {
+                // replaced right away, a control may be pressed at this very moment
+                Drawable previous = mControlBack;
+                previous.setCallback(null);
+                mControlBack = createControlBackground();
+                mControlBack.setState(previous.getState());
+                mControlBack.setBounds(previous.getBounds());
+                mControlBack.jumpToCurrentState();
+            }
+        }
+
+        swapStyle(editor.mControlsColor, editor.mFastControlsColor, editor.mHighlightColor);
+        ensureFeatures();
+
+        // one layout pass for everything, previously cached layouts are stale
+        mLayoutGeneration++;
+        dropIdleSnapshot();
+        if (mWidth > 0 && mHeight > 0) {
+            updateLayout();
+        }
+        requestLayout();
+        invalidate();
+
+        if (oldValue != mValue) {
+            notifyListener(oldValue, mValue);
+        } else {
+            publishState();
+        }
+    }
+
+    /**
+     * Sets the minimum value to this number picker. Can be called from any thread, see {@link #getState()}.
      *
      * @param minValue Minimum value to display by the number picker
      */
     public void setMinValue(int minValue) {
+        if (!isMainThread()) {
+            mState.setMinValue(minValue);
+            return;
+        }
+
         if (mMaxValue <= minValue) {
             throw new RuntimeException("Cannot use min_value " + minValue + " because the max_value is " + mMaxValue);
         }
@@ -301,14 +930,20 @@ public class ActualNumberPicker extends View {
         if (mMinValue > mValue) {
             setValue((mMaxValue + mMinValue) / 2);
         }
+        publishState();
     }
 
     /**
-     * Sets the maximum value to this number picker.
+     * Sets the maximum value to this number picker. Can be called from any thread, see {@link #getState()}.
      *
      * @param maxValue Maximum value to display by the number picker
      */
     public void setMaxValue(int maxValue) {
+        if (!isMainThread()) {
+            mState.setMaxValue(maxValue);
+            return;
+        }
+
         if (maxValue <= mMinValue) {
             throw new RuntimeException("Cannot use max_value " + maxValue + " because the min_value is " + mMinValue);
         }
@@ -317,11 +952,352 @@ public class ActualNumberPicker extends View {
         if (mMaxValue < mValue) {
             setValue((mMaxValue + mMinValue) / 2);
         }
+        publishState();
+    }
+
+    /**
+     * Publishes the picker's fields to the {@link PickerState}. Changes made by other threads since the last sync are kept, and if they
+     * make the merged state differ from the picker's fields, a sync is scheduled to apply it.
+     */
+    private void publishState() {
+        PickerState.Snapshot published = mState.publish(mStateBase, mValue, mMinValue, mMaxValue);
+        if (published.equals(mValue, mMinValue, mMaxValue)) {
+            mStateBase = published;
+        } else {
+            mStateBase = new PickerState.Snapshot(mValue, mMinValue, mMaxValue);
+            scheduleStateSync();
+        }
+    }
+
+    private static boolean isMainThread() {
+        return Looper.myLooper() == Looper.getMainLooper();
+    }
+
+    /**
+     * Called from any thread when the {@link PickerState} was changed from the outside. Applying the state is scheduled only once, no
+     * matter how many changes arrive before the next frame.
+     */
+    private void scheduleStateSync() {
+        if (mStateSyncScheduled.compareAndSet(false, true)) {
+            mHandler.post(mStateSyncPoster);
+        }
+    }
+
+    /**
+     * Runs on the main thread and defers the state sync to the next animation frame.
+     */
+    private Runnable mStateSyncPoster = new Runnable() {
+        @Override
+        public void run() {
+            ViewCompat.postOnAnimation(ActualNumberPicker.this, mStateSyncer);
+        }
+    };
+
+    /**
+     * Applies the latest {@link PickerState} snapshot to the view.
+     */
+    private Runnable mStateSyncer = new Runnable() {
+        @Override
+        public void run() {
+            mStateSyncScheduled.set(false);
+            PickerState.Snapshot snapshot = mState.get();
+            mStateBase = snapshot;
+            if (snapshot.equals(mValue, mMinValue, mMaxValue)) {
+                return;
+            }
+
+            // a range change alone also changes what is drawn
+            dropIdleSnapshot();
+            int oldValue = mValue;
+            mMinValue = snapshot.getMinValue();
+            mMaxValue = snapshot.getMaxValue();
+            if (snapshot.getValue() != mValue) {
+                mValue = snapshot.getValue();
+                mDelta = 0;
+                mLastX = Float.MAX_VALUE;
+                notifyListener(oldValue, mValue);
+                if (mLabelWheel != null) {
+                    mLabelWheel.reset();
+                }
+            }
+            invalidate();
+        }
+    };
+
+    /**
+     * Switches between the two bar fading modes. When shader fading is enabled, all bars are drawn with a constant paint and the edge fade
+     * is applied through a single horizontal gradient shader (cached per view width), instead of changing the paint alpha for each bar.
+     *
+     * @param shaderFade {@code True} to fade the bars using a shader, {@code false} to fade each bar separately
+     * @param gradientBars {@code True} to also color the bars with a gradient derived from the bar color (only with shader fading)
+     */
+    public void setShaderFade(boolean shaderFade, boolean gradientBars) {
+        mShaderFade = shaderFade;
+        mGradientBars = gradientBars;
+        mBarShader = null;
+        mBarShaderWidth = -1;
+        mBarPaint.setShader(null);
+        mBarPaint.setColor(mBarColor);
+        dropIdleSnapshot();
+        invalidate();
+    }
+
+    /**
+     * Enables or disables the adaptive quality mode. When enabled, the picker watches recent frame times and, under jank, steps down the
+     * rendering quality in stages: fewer bars, then no anti-aliasing, then no highlight blur. Quality is restored once frames are back
+     * within the budget. Frames are measured only while dragging or animating, and only on Jelly Bean and newer.
+     *
+     * @param enabled {@code True} to adapt the quality to the device performance, {@code false} to always draw in full quality
+     */
+    public void setAdaptiveQuality(boolean enabled) {
+        int oldLevel = getQualityLevel();
+        if (enabled && mQualityGovernor == null) {
+            mQualityGovernor = new QualityGovernor();
+            updateRefreshRate();
+        } else if (!enabled) {
+            mQualityGovernor = null;
+            stopFrameMeter();
+        }
+        applyQualityLevel(oldLevel);
+    }
+
+    /**
+     * @return Current rendering quality level, any of the {@link Quality} levels; always {@link #QUALITY_FULL} when the adaptive quality
+     *         mode is disabled
+     */
+    @Quality
+    public int getQualityLevel() {
+        return mQualityGovernor == null ? QUALITY_FULL : mQualityGovernor.getLevel();
+    }
+
+    /**
+     * Sets the {@link OnQualityChangeListener} to this number picker.
+     *
+     * @param listener Which listener to set
+     */
+    public void setQualityListener(OnQualityChangeListener listener) {
+        mQualityListener = listener;
+    }
+
+    /**
+     * Applies the current quality level to the paints and cached layers, and notifies the quality listener.
+     *
+     * @param oldLevel Which quality level was used before
+     */
+    private void applyQualityLevel(final int oldLevel) {
+        final int newLevel = getQualityLevel();
+        if (oldLevel == newLevel) {
+            return;
+        }
+
+        mBarPaint.setAntiAlias(newLevel < QUALITY_NO_ANTI_ALIAS);
+        dropIdleSnapshot();
+        invalidate();
+
+        postNotification(new Runnable() {
+            @Override
+            public void run() {
+                if (mQualityListener != null) {
+                    mQualityListener.onQualityChanged(oldLevel, newLevel);
+                }
+            }
+        });
+    }
+
+    /**
+     * Uses the display refresh rate as the adaptive quality frame budget and the touch prediction frame interval, when known.
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR1)
+    private void updateRefreshRate() {
+        if ((mQualityGovernor != null || mTouchPredictor != null) && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1
+                && getDisplay() != null) {
+            float refreshRate = getDisplay().getRefreshRate();
+            if (mQualityGovernor != null) {
+                mQualityGovernor.setRefreshRate(refreshRate);
+            }
+            if (mTouchPredictor != null) {
+                mTouchPredictor.setRefreshRate(refreshRate);
+            }
+        }
+    }
+
+    /**
+     * Enables or disables the predictive touch mode. While dragging, touch events lag the finger by a frame or two; in this mode the bars
+     * and the value are drawn at the position the finger is expected to reach when the frame is presented, extrapolated from recent
+     * samples. The picker state and the listener notifications always follow the real touch positions.
+     *
+     * @param enabled {@code True} to draw drags from the predicted position, {@code false} to draw from the last touch event
+     */
+    public void setPredictiveTouch(boolean enabled) {
+        if (enabled && mTouchPredictor == null) {
+            mTouchPredictor = new TouchPredictor();
+            updateRefreshRate();
+        } else if (!enabled) {
+            mTouchPredictor = null;
+        }
+    }
+
+    /**
+     * @return How many bars to draw, depending on the configuration, the view width and the current quality level
+     */
+    private int getEffectiveBarCount() {
+        int count = mBarCount;
+        if (mAutoBarCount && mAutoBarSpacing > 0 && mWidth > 0) {
+            count = Math.max(3, mWidth / mAutoBarSpacing);
+        }
+        if (getQualityLevel() >= QUALITY_FEWER_BARS) {
+            count = Math.max(3, count / 2);
+        }
+        return count;
+    }
+
+    /**
+     * Enables or disables the idle snapshot mode. While the picker is idle (not touched, not animating), its appearance depends only on
+     * the value and colors, so it is drawn once into a bitmap and then only the bitmap is drawn, e.g. on every frame of a scrolling parent.
+     * The snapshot is dropped on touch, on value change and under memory pressure.
+     *
+     * @param enabled {@code True} to cache the idle appearance, {@code false} to always draw everything
+     */
+    public void setIdleSnapshotEnabled(boolean enabled) {
+        mIdleSnapshotEnabled = enabled;
+        if (!enabled) {
+            releaseIdleSnapshot();
+        }
+        invalidate();
+    }
+
+    /**
+     * Reports how many bitmap bytes this picker holds on its own, i.e. the idle snapshot (if enabled). It is sized to the view, so it is
+     * allocated only after the first draw. Control icons and highlights are shared, see {@link PickerStyle#getBitmapByteCount()}.
+     *
+     * @return Bitmap bytes held by this instance only
+     */
+    public int getBitmapByteCount() {
+        if (mIdleSnapshot == null) {
+            return 0;
+        }
+        return mIdleSnapshot.getRowBytes() * mIdleSnapshot.getHeight();
+    }
+
+    /**
+     * @return The shared style of this picker, holding the control icons and the highlight paint
+     */
+    @NonNull
+    public PickerStyle getStyle() {
+        return mStyle;
+    }
+
+    /**
+     * Marks the idle snapshot as stale, it will be redrawn the next time the picker is drawn while idle.
+     */
+    private void dropIdleSnapshot() {
+        mIdleSnapshotValid = false;
+    }
+
+    /**
+     * Drops the idle snapshot and frees its bitmap.
+     */
+    private void releaseIdleSnapshot() {
+        mIdleSnapshotValid = false;
+        if (mIdleSnapshot != null) {
+            mIdleSnapshotCanvas.setBitmap(null);
+            mIdleSnapshot.recycle();
+            mIdleSnapshot = null;
+        }
+    }
+
+    /**
+     * @return {@code True} if the picker is redrawn on every frame, i.e. the bars are dragged or the label is animating
+     */
+    private boolean isAnimatingContinuously() {
+        return (mSelectedControl == CONTROL_NONE && mLastX != Float.MAX_VALUE) || (mLabelWheel != null && mLabelWheel.isAnimating());
+    }
+
+    /**
+     * Starts measuring frame times for the {@link QualityGovernor}, unless already measuring. Only available on Jelly Bean and newer.
+     */
+    private void startFrameMeter() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            if (mFrameMeter == null) {
+                mFrameMeter = new FrameMeter();
+            }
+            mFrameMeter.post();
+        }
+    }
+
+    /**
+     * Stops measuring frame times, the next measurement starts from scratch.
+     */
+    private void stopFrameMeter() {
+        if (mFrameMeter != null) {
+            mFrameMeter.cancel();
+        }
+        if (mQualityGovernor != null) {
+            mQualityGovernor.onAnimationEnd();
+        }
+    }
+
+    /**
+     * Feeds the vsync time of every frame to the {@link QualityGovernor} while the picker animates continuously, and stops by itself once
+     * the animation ends. Measuring frames instead of draw calls keeps idle periods and one-off redraws out of the measurement.
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private final class FrameMeter implements Choreographer.FrameCallback {
+
+        private boolean mPosted = false;
+
+        void post() {
+            if (!mPosted) {
+                mPosted = true;
+                Choreographer.getInstance().postFrameCallback(this);
+            }
+        }
+
+        void cancel() {
+            if (mPosted) {
+                mPosted = false;
+                Choreographer.getInstance().removeFrameCallback(this);
+            }
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mPosted = false;
+            if (mQualityGovernor == null) {
+                return;
+            }
+            if (!isAnimatingContinuously()) {
+                mQualityGovernor.onAnimationEnd();
+                return;
+            }
+
+            int oldLevel = mQualityGovernor.getLevel();
+            if (mQualityGovernor.onFrame(frameTimeNanos)) {
+                applyQualityLevel(oldLevel);
+            }
+            post();
+        }
+    }
+
+    /**
+     * @return {@code True} if the picker is not touched and has nothing left to animate
+     */
+    private boolean isIdle() {
+        return mSelectedControl == CONTROL_NONE && mLastX == Float.MAX_VALUE && !mStepsScheduled && !isPressed()
+                && (mLabelWheel == null || !mLabelWheel.isAnimating());
+    }
+
+    @Override
+    public void invalidateDrawable(@NonNull Drawable drawable) {
+        // control backgrounds are animating (e.g. ripple fading out), snapshot would be stale
+        dropIdleSnapshot();
+        super.invalidateDrawable(drawable);
     }
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
         super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        PickerTrace.begin(PickerTrace.MEASURE);
 
         int heightMode = MeasureSpec.getMode(heightMeasureSpec);
         int heightSize = MeasureSpec.getSize(heightMeasureSpec);
@@ -350,100 +1326,155 @@ public class ActualNumberPicker extends View {
         mWidth = calculateWidth(widthSize, widthMode, mHeight); // fast_controls x2, controls x2, text
         mMaxControlSize = Math.min(mHeight, mMaxControlSize);
 
-        // MUST CALL THIS
-        setMeasuredDimension(mWidth, mHeight);
-        updateTextSize();
-        calculateControlPositions();
+        // MUST CALL THIS
+        setMeasuredDimension(mWidth, mHeight);
+        updateLayout();
+        PickerTrace.end();
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldW, int oldH) {
+        PickerTrace.begin(PickerTrace.SIZE_CHANGED);
+        mHeight = Math.max(h, mHeight);
+        mWidth = calculateWidth(w, MeasureSpec.EXACTLY, mHeight);
+        mMaxControlSize = Math.min(mHeight, mMaxControlSize);
+        updateLayout();
+        dropIdleSnapshot();
+        super.onSizeChanged(mWidth, mHeight, oldW, oldH);
+        PickerTrace.end();
+    }
+
+    /**
+     * Makes sure the text size and control positions match the current dimensions. This is O(1) when nothing changed since the last call,
+     * and previously computed layouts (e.g. before a rotation) are restored from the {@link LayoutCache} instead of being recalculated.
+     */
+    private void updateLayout() {
+        if (mCurrentLayout != null && mCurrentLayout.matches(mWidth, mHeight, mMaxControlSize, mLayoutGeneration)) {
+            return;
+        }
+
+        LayoutCache.Entry layout = mLayoutCache.find(mWidth, mHeight, mMaxControlSize, mLayoutGeneration);
+        if (layout != null) {
+            restoreLayout(layout);
+        } else {
+            updateTextSize();
+            calculateControlPositions();
+            layout = mLayoutCache.obtain(mWidth, mHeight, mMaxControlSize, mLayoutGeneration);
+            saveLayout(layout);
+        }
+        mCurrentLayout = layout;
+    }
+
+    /**
+     * Stores the current text size and control bounds to the given cache entry.
+     */
+    private void saveLayout(LayoutCache.Entry layout) {
+        layout.textSize = mTextPaint == null ? 0 : mTextPaint.getTextSize();
+        int offset = 0;
+        for (int control : CONTROLS) {
+            Drawable icon = mControlIcons.get(control);
+            offset = writeBounds(layout.bounds, offset, icon == null ? EMPTY_BOUNDS : icon.getBounds());
+            offset = writeBounds(layout.bounds, offset, mControlHitBounds.get(control));
+        }
+    }
+
+    /**
+     * Applies the text size and control bounds from the given cache entry.
+     */
+    private void restoreLayout(LayoutCache.Entry layout) {
+        if (mTextSize == -1.0f && mTextPaint != null) {
+            mTextPaint.setTextSize(layout.textSize);
+        }
+        int[] bounds = layout.bounds;
+        int offset = 0;
+        for (int control : CONTROLS) {
+            Drawable icon = mControlIcons.get(control);
+            if (icon != null) {
+                icon.setBounds(bounds[offset], bounds[offset + 1], bounds[offset + 2], bounds[offset + 3]);
+            }
+            offset += LayoutCache.RECT_SIZE;
+            mControlHitBounds.get(control).set(bounds[offset], bounds[offset + 1], bounds[offset + 2], bounds[offset + 3]);
+            offset += LayoutCache.RECT_SIZE;
+        }
+        moveControlBackground();
     }
 
-    @Override
-    protected void onSizeChanged(int w, int h, int oldW, int oldH) {
-        mHeight = Math.max(h, mHeight);
-        mWidth = calculateWidth(w, MeasureSpec.EXACTLY, mHeight);
-        mMaxControlSize = Math.min(mHeight, mMaxControlSize);
-        updateTextSize();
-        calculateControlPositions();
-        super.onSizeChanged(mWidth, mHeight, oldW, oldH);
+    private static int writeBounds(int[] destination, int offset, Rect bounds) {
+        destination[offset] = bounds.left;
+        destination[offset + 1] = bounds.top;
+        destination[offset + 2] = bounds.right;
+        destination[offset + 3] = bounds.bottom;
+        return offset + LayoutCache.RECT_SIZE;
     }
 
     private Drawable createControlBackground() {
-        Drawable back = Coloring.get().createBackgroundDrawable(Color.TRANSPARENT, mSelectionColor, mSelectionColor, true);
+        Drawable back = Coloring.get().createSharedBackgroundDrawable(Color.TRANSPARENT, mSelectionColor, mSelectionColor, true);
         back.setCallback(this);
         return back;
     }
 
+    /**
+     * Moves the control background to the hit bounds of the active control. Only one control can be pressed at a time, so all controls
+     * share the same background drawable.
+     */
+    private void moveControlBackground() {
+        if (mActiveBackground != CONTROL_NONE && mControlBack != null) {
+            mControlBack.setBounds(mControlHitBounds.get(mActiveBackground));
+        }
+    }
+
     @Override
     protected boolean verifyDrawable(Drawable who) {
-        boolean isControlBackground = false;
-        for (int i = 0; i < mControlsBacks.size(); i++) {
-            if (mControlsBacks.get(mControlsBacks.keyAt(i)) == who) {
-                isControlBackground = true;
-                break;
-            }
-        }
-        return super.verifyDrawable(who) || isControlBackground;
+        return super.verifyDrawable(who) || who == mControlBack;
     }
 
     @Override
     public void jumpDrawablesToCurrentState() {
         super.jumpDrawablesToCurrentState();
-        for (int i = 0; i < mControlsBacks.size(); i++) {
-            mControlsBacks.get(mControlsBacks.keyAt(i)).jumpToCurrentState();
+        if (mControlBack != null) {
+            mControlBack.jumpToCurrentState();
         }
     }
 
     @Override
     public void drawableHotspotChanged(float x, float y) {
         super.drawableHotspotChanged(x, y);
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-            for (int i = 0; i < mControlsBacks.size(); i++) {
-                mControlsBacks.get(mControlsBacks.keyAt(i)).setHotspot(x, y);
-            }
+        if (mControlBack != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            mControlBack.setHotspot(x, y);
         }
     }
 
     @Override
     protected void drawableStateChanged() {
         super.drawableStateChanged();
-        if (mSelectedControl != CONTROL_NONE) {
-            mControlsBacks.get(mSelectedControl).setState(getDrawableState());
+        if (mSelectedControl != CONTROL_NONE && mControlBack != null) {
+            mControlBack.setState(getDrawableState());
 
-            mHandler.removeCallbacks(mInvalidator);
-            mHandler.post(mInvalidator);
+            postRedraw();
         }
     }
 
     private void calculateControlPositions() {
-        // load icon dimensions
-        int leftArrW = mControlIcons.get(ARR_LEFT).getMinimumWidth();
-        int leftArrH = mControlIcons.get(ARR_LEFT).getMinimumHeight();
-        int rightArrW = mControlIcons.get(ARR_RIGHT).getMinimumWidth();
-        int rightArrH = mControlIcons.get(ARR_RIGHT).getMinimumHeight();
-        int fastLeftArrW = mControlIcons.get(FAST_ARR_LEFT).getMinimumWidth();
-        int fastLeftArrH = mControlIcons.get(FAST_ARR_LEFT).getMinimumHeight();
-        int fastRightArrW = mControlIcons.get(FAST_ARR_RIGHT).getMinimumWidth();
-        int fastRightArrH = mControlIcons.get(FAST_ARR_RIGHT).getMinimumHeight();
-
+        PickerTrace.begin(PickerTrace.CONTROL_POSITIONS);
         int maxSelectionRadius = mHeight > mMinHeight ? mMaxControlSize : mMinHeight;
 
-        // ***** left arrow selection ripple *****
+        // ***** left arrow hit bounds, selection ripple is moved here when pressed *****
         int leftCX = mWidth / 2 - maxSelectionRadius;
         int leftCY = mHeight / 2;
-        mControlsBacks.get(ARR_LEFT).setBounds(leftCX - maxSelectionRadius / 2, leftCY - maxSelectionRadius / 2,
+        mControlHitBounds.get(ARR_LEFT).set(leftCX - maxSelectionRadius / 2, leftCY - maxSelectionRadius / 2,
                 leftCX + maxSelectionRadius / 2, leftCY + maxSelectionRadius / 2);
         // left arrow drawable bounds
-        mControlIcons.get(ARR_LEFT).setBounds(leftCX - leftArrW / 2, leftCY - leftArrH / 2, leftCX + leftArrW / 2, leftCY + leftArrH / 2);
+        setIconBounds(ARR_LEFT, leftCX, leftCY);
 
-        // ***** right arrow selection ripple *****
+        // ***** right arrow hit bounds *****
         int rightCX = mWidth / 2 + maxSelectionRadius;
         int rightCY = mHeight / 2;
-        mControlsBacks.get(ARR_RIGHT).setBounds(rightCX - maxSelectionRadius / 2, rightCY - maxSelectionRadius / 2,
+        mControlHitBounds.get(ARR_RIGHT).set(rightCX - maxSelectionRadius / 2, rightCY - maxSelectionRadius / 2,
                 rightCX + maxSelectionRadius / 2, rightCY + maxSelectionRadius / 2);
         // right arrow drawable bounds
-        mControlIcons.get(ARR_RIGHT).setBounds(rightCX - rightArrW / 2, rightCY - rightArrH / 2, rightCX + rightArrW / 2,
-                rightCY + rightArrH / 2);
+        setIconBounds(ARR_RIGHT, rightCX, rightCY);
 
-        // ***** left fast arrow selection ripple *****
+        // ***** left fast arrow hit bounds *****
         int fastLeftCX;
         if (mShowControls) {
             fastLeftCX = mWidth / 2 - maxSelectionRadius * 2;
@@ -451,13 +1482,12 @@ public class ActualNumberPicker extends View {
             fastLeftCX = leftCX;
         }
         int fastLeftCY = mHeight / 2;
-        mControlsBacks.get(FAST_ARR_LEFT).setBounds(fastLeftCX - maxSelectionRadius / 2, fastLeftCY - maxSelectionRadius / 2,
+        mControlHitBounds.get(FAST_ARR_LEFT).set(fastLeftCX - maxSelectionRadius / 2, fastLeftCY - maxSelectionRadius / 2,
                 fastLeftCX + maxSelectionRadius / 2, fastLeftCY + maxSelectionRadius / 2);
         // left fast arrow drawable bounds
-        mControlIcons.get(FAST_ARR_LEFT).setBounds(fastLeftCX - fastLeftArrW / 2, fastLeftCY - fastLeftArrH / 2,
-                fastLeftCX + fastLeftArrW / 2, fastLeftCY + fastLeftArrH / 2);
+        setIconBounds(FAST_ARR_LEFT, fastLeftCX, fastLeftCY);
 
-        // ***** right fast arrow selection ripple *****
+        // ***** right fast arrow hit bounds *****
         int fastRightCX;
         if (mShowControls) {
             fastRightCX = mWidth / 2 + maxSelectionRadius * 2;
@@ -465,11 +1495,25 @@ public class ActualNumberPicker extends View {
             fastRightCX = rightCX;
         }
         int fastRightCY = mHeight / 2;
-        mControlsBacks.get(FAST_ARR_RIGHT).setBounds(fastRightCX - maxSelectionRadius / 2, fastRightCY - maxSelectionRadius / 2,
+        mControlHitBounds.get(FAST_ARR_RIGHT).set(fastRightCX - maxSelectionRadius / 2, fastRightCY - maxSelectionRadius / 2,
                 fastRightCX + maxSelectionRadius / 2, fastRightCY + maxSelectionRadius / 2);
         // right fast arrow drawable bounds
-        mControlIcons.get(FAST_ARR_RIGHT).setBounds(fastRightCX - fastRightArrW / 2, fastRightCY - fastRightArrH / 2,
-                fastRightCX + fastRightArrW / 2, fastRightCY + fastRightArrH / 2);
+        setIconBounds(FAST_ARR_RIGHT, fastRightCX, fastRightCY);
+
+        moveControlBackground();
+        PickerTrace.end();
+    }
+
+    /**
+     * Centers the given control icon at the given point, using its own size. Does nothing if the icon is not loaded (control not shown).
+     */
+    private void setIconBounds(@Control int control, int centerX, int centerY) {
+        Drawable icon = mControlIcons.get(control);
+        if (icon != null) {
+            int width = icon.getMinimumWidth();
+            int height = icon.getMinimumHeight();
+            icon.setBounds(centerX - width / 2, centerY - height / 2, centerX + width / 2, centerY + height / 2);
+        }
     }
 
     /**
@@ -508,7 +1552,7 @@ public class ActualNumberPicker extends View {
     public void onWindowFocusChanged(boolean hasWindowFocus) {
         super.onWindowFocusChanged(hasWindowFocus);
         if (hasWindowFocus) {
-            updateTextSize();
+            updateLayout();
         }
     }
 
@@ -517,6 +1561,10 @@ public class ActualNumberPicker extends View {
      * is no defined value for text size, this method calculated the optimal size, which is around 60% of the View's height.
      */
     private void updateTextSize() {
+        if (mTextPaint == null) {
+            // text is not shown
+            return;
+        }
         if (mTextSize != -1.0f) {
             if (BuildConfig.DEBUG) {
                 Log.d(TAG, "Not calculating text size, a predefined value is set: " + mTextPaint.getTextSize());
@@ -524,6 +1572,7 @@ public class ActualNumberPicker extends View {
             return;
         }
 
+        PickerTrace.begin(PickerTrace.TEXT_SIZE);
         float size = 14f; // 14px on LDPI x system font factor
         Rect bounds = new Rect(0, 0, 0, 0);
         mTextPaint.setTextSize(size);
@@ -534,6 +1583,7 @@ public class ActualNumberPicker extends View {
             mTextPaint.setTextSize(size++);
             mTextPaint.getTextBounds("AA", 0, 1, bounds);
         }
+        PickerTrace.end();
     }
 
     /**
@@ -542,25 +1592,57 @@ public class ActualNumberPicker extends View {
      * @param size A dimension representing the text size
      */
     public void setTextSize(float size) {
+        mLayoutGeneration++;
+        dropIdleSnapshot();
         mTextSize = size;
-        if (mTextSize != -1.0f) {
+        if (mTextSize != -1.0f && mTextPaint != null) {
             mTextPaint.setTextSize(size);
         }
         updateTextSize();
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Enables or disables the wheel mode. In wheel mode, previous and next values are shown next to the current value and slide along as
+     * the value changes. Has no effect if the text is not shown.
+     *
+     * @param showNeighbors {@code True} to show neighbor values, {@code false} to show only the current value
+     */
+    public void setShowNeighbors(boolean showNeighbors) {
+        if (showNeighbors && mLabelWheel == null) {
+            mLabelWheel = new LabelWheel(this);
+        } else if (!showNeighbors) {
+            mLabelWheel = null;
+        }
+        dropIdleSnapshot();
+        invalidate();
+    }
+
+    /**
+     * Writes the text for the given value to the given buffer, without allocating.
+     *
+     * @param value Which value (or step index in the decimal mode) to format
+     * @param destination Where to write, should be at least {@link FixedPoint#MAX_LENGTH} long
+     * @return How many characters were written
+     */
+    int formatValue(int value, char[] destination) {
+        return FixedPoint.format(toDecimal(value), mScale, destination);
     }
 
     /**
      * Measures the given text and saves dimensions to the {@link #mTextDimens} field.
      *
      * @param text Which text to measure
+     * @param length How many characters to measure from the start of the text
      */
-    private void measureText(String text) {
+    private void measureText(char[] text, int length) {
         // accurate measure for height
-        mTextPaint.getTextBounds(text, 0, text.length(), mTextBounds);
+        mTextPaint.getTextBounds(text, 0, length, mTextBounds);
         mTextDimens.y = Math.abs(mTextBounds.height());
 
         // accurate measure for width
-        mTextDimens.x = (int) Math.floor(mTextPaint.measureText(text));
+        mTextDimens.x = (int) Math.floor(mTextPaint.measureText(text, 0, length));
         // update text bounds, will need it for later
         mTextBounds.set(mTextBounds.left, mTextBounds.top, mTextBounds.left + mTextDimens.x, mTextBounds.bottom);
     }
@@ -578,11 +1660,17 @@ public class ActualNumberPicker extends View {
 
     /**
      * Forces a new value onto the view. This will notify the listener and move the wheel to its starting position.<br>
+     * Can be called from any thread, see {@link #getState()}.<br>
      * <b>Note</b>: The value must be between {@link #mMinValue} and {@link #mMaxValue}.
      * 
      * @param newValue Which value to set
      */
     public void setValue(int newValue) {
+        if (!isMainThread()) {
+            mState.setValue(newValue);
+            return;
+        }
+
         int oldValue = mValue;
         mDelta = 0;
         mValue = newValue;
@@ -591,6 +1679,10 @@ public class ActualNumberPicker extends View {
         if (oldValue != mValue) {
             notifyListener(oldValue, mValue);
         }
+        if (mLabelWheel != null) {
+            // forced values jump, no sliding
+            mLabelWheel.reset();
+        }
     }
 
     /**
@@ -614,14 +1706,12 @@ public class ActualNumberPicker extends View {
                 break;
             }
             case FAST_ARR_LEFT: {
-                int valueChange = (mMaxValue - mMinValue) / 10;
-                mValue -= valueChange;
+                mValue = fastStep(mValue, -1);
                 changeX = (int) -(0.1f * mWidth);
                 break;
             }
             case FAST_ARR_RIGHT: {
-                int valueChange = (mMaxValue - mMinValue) / 10;
-                mValue += valueChange;
+                mValue = fastStep(mValue, 1);
                 changeX = (int) (0.1f * mWidth);
                 break;
             }
@@ -639,19 +1729,111 @@ public class ActualNumberPicker extends View {
     }
 
     /**
-     * Calls {@link OnValueChangeListener#onValueChanged(int, int)}, but posts it to the main looper.
+     * Calls {@link OnValueChangeListener#onValueChanged(int, int)}, but posts it to the main looper. Also publishes the new value to the
+     * {@link PickerState}.
      */
     private void notifyListener(final int oldValue, final int newValue) {
-        mHandler.post(new Runnable() {
+        dropIdleSnapshot();
+        if (mLabelWheel != null) {
+            mLabelWheel.onValueChanged(newValue - oldValue);
+        }
+        publishState();
+        if (mGroup != null) {
+            // the group dispatches once per frame, keep the value from before the first change
+            if (!mGroupChangePending) {
+                mGroupChangePending = true;
+                mGroupOldValue = oldValue;
+            }
+            mGroup.scheduleFrame();
+            return;
+        }
+
+        final long oldDecimal = toDecimal(oldValue);
+        final long newDecimal = toDecimal(newValue);
+        final boolean decimalMode = mDecimalMode;
+        final int scale = mScale;
+        postNotification(new Runnable() {
             @Override
             public void run() {
-                if (mListener != null) {
-                    mListener.onValueChanged(oldValue, newValue);
-                }
+                dispatchValueChange(oldValue, newValue, decimalMode, oldDecimal, newDecimal, scale);
             }
         });
     }
 
+    /**
+     * Posts a listener notification to the main looper, tagged with this picker so that {@link #rebind(int, int, int)} can cancel it.
+     */
+    private void postNotification(Runnable notification) {
+        mHandler.postAtTime(notification, this, SystemClock.uptimeMillis());
+    }
+
+    private void dispatchValueChange(int oldValue, int newValue, boolean decimalMode, long oldDecimal, long newDecimal, int scale) {
+        PickerTrace.begin(PickerTrace.DISPATCH);
+        if (mListener != null) {
+            mListener.onValueChanged(oldValue, newValue);
+        }
+        if (decimalMode && mDecimalListener != null) {
+            mDecimalListener.onDecimalValueChanged(oldDecimal, newDecimal, scale);
+        }
+        PickerTrace.end();
+    }
+
+    /**
+     * Redraws on the next loop, or on the next group frame if this picker is in a {@link PickerGroup}.
+     */
+    private void postRedraw() {
+        if (mGroup != null) {
+            mGroupRedrawPending = true;
+            mGroup.scheduleFrame();
+            return;
+        }
+        mHandler.removeCallbacks(mInvalidator);
+        mHandler.post(mInvalidator);
+    }
+
+    /**
+     * Called by the {@link PickerGroup} when this picker joins or leaves it.
+     *
+     * @param group The new group, or {@code null} when leaving
+     */
+    void setGroup(PickerGroup group) {
+        if (mGroup != null && group == null) {
+            // leaving, don't lose what the group did not deliver yet
+            flushGroupChange();
+            if (mGroupRedrawPending) {
+                mGroupRedrawPending = false;
+                invalidate();
+            }
+        }
+        mGroup = group;
+    }
+
+    /**
+     * @return {@code True} if the value changed since the last group frame
+     */
+    boolean isGroupChangePending() {
+        return mGroupChangePending;
+    }
+
+    /**
+     * Delivers the value change collected since the last group frame to this picker's listeners, and redraws if needed. Called by the
+     * {@link PickerGroup} once per frame.
+     *
+     * @return {@code True} if the value is now different than in the last group frame
+     */
+    boolean flushGroupChange() {
+        boolean changed = mGroupChangePending && mGroupOldValue != mValue;
+        if (mGroupRedrawPending || mGroupChangePending) {
+            mGroupRedrawPending = false;
+            invalidate();
+        }
+        mGroupChangePending = false;
+        if (changed) {
+            dispatchValueChange(mGroupOldValue, mValue, mDecimalMode, toDecimal(mGroupOldValue), toDecimal(mValue), mScale);
+        }
+        return changed;
+    }
+
     /**
      * Checks whether the given [x, y] point fits into the hit point rectangle for any of the controls.
      *
@@ -662,17 +1844,17 @@ public class ActualNumberPicker extends View {
     @Control
     private int isTouchingControls(float x, float y) {
         if (mShowControls) {
-            if (mControlsBacks.get(ARR_LEFT).getBounds().contains((int) x, (int) y)) {
+            if (mControlHitBounds.get(ARR_LEFT).contains((int) x, (int) y)) {
                 return ARR_LEFT;
-            } else if (mControlsBacks.get(ARR_RIGHT).getBounds().contains((int) x, (int) y)) {
+            } else if (mControlHitBounds.get(ARR_RIGHT).contains((int) x, (int) y)) {
                 return ARR_RIGHT;
             }
         }
 
         if (mShowFastControls) {
-            if (mControlsBacks.get(FAST_ARR_LEFT).getBounds().contains((int) x, (int) y)) {
+            if (mControlHitBounds.get(FAST_ARR_LEFT).contains((int) x, (int) y)) {
                 return FAST_ARR_LEFT;
-            } else if (mControlsBacks.get(FAST_ARR_RIGHT).getBounds().contains((int) x, (int) y)) {
+            } else if (mControlHitBounds.get(FAST_ARR_RIGHT).contains((int) x, (int) y)) {
                 return FAST_ARR_RIGHT;
             }
         }
@@ -680,61 +1862,116 @@ public class ActualNumberPicker extends View {
         return CONTROL_NONE;
     }
 
+    /**
+     * Moves the value and the bars to match the given drag position. Positions are kept as floats, so sub-pixel movements from batched
+     * samples are not lost.
+     *
+     * @param x Where is the finger on the X-axis
+     */
+    private void dragTo(float x) {
+        int oldValue = mValue;
+        if (mValueScale != null && mWidth > 0) {
+            mValue = getScaleTable().valueAt(x);
+        } else {
+            float percent = x / (float) mWidth;
+            mValue = (int) Math.floor(percent * (mMaxValue - mMinValue)) + mMinValue;
+        }
+        normalizeValue();
+
+        if (mValue != oldValue) {
+            float thisDelta = mLastX - x;
+            mLastX = x;
+            // 'minus' because we want to go in the opposite direction
+            mDelta -= thisDelta / (mDensityFactor / 2f);
+        }
+    }
+
     @Override
     public boolean onTouchEvent(MotionEvent event) {
-        int selectedControl = isTouchingControls(event.getX(), event.getY());
+        PickerTrace.begin(PickerTrace.TOUCH);
+        try {
+            return handleTouchEvent(event);
+        } finally {
+            PickerTrace.end();
+        }
+    }
+
+    private boolean handleTouchEvent(MotionEvent event) {
+        if (event.getAction() == MotionEvent.ACTION_DOWN) {
+            mGestureCancelled = false;
+        } else if (mGestureCancelled) {
+            // rest of a gesture that started before the picker was re-bound
+            return true;
+        }
 
         switch (event.getAction()) {
             case MotionEvent.ACTION_DOWN: {
+                dropIdleSnapshot();
                 getParent().requestDisallowInterceptTouchEvent(true);
                 mLastX = event.getX();
+                if (mTouchPredictor != null) {
+                    mTouchPredictor.reset();
+                    mTouchPredictor.addSample(event.getX(), event.getEventTime());
+                }
 
-                mSelectedControl = selectedControl;
+                // the gesture sticks to the control it started on, later events are never hit-tested
+                mSelectedControl = isTouchingControls(event.getX(), event.getY());
                 if (mSelectedControl != CONTROL_NONE) {
-                    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-                        mControlsBacks.get(selectedControl).setHotspot(event.getX(), event.getY());
+                    if (mActiveBackground != mSelectedControl) {
+                        // previous control may still be fading out, the background moves without animating
+                        if (mControlBack != null) {
+                            mControlBack.jumpToCurrentState();
+                        }
+                        mActiveBackground = mSelectedControl;
+                        moveControlBackground();
+                    }
+                    if (mControlBack != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+                        mControlBack.setHotspot(event.getX(), event.getY());
                     }
 
-                    mHandler.post(mInvalidator);
+                    postRedraw();
                 }
                 setPressed(true); // required to draw drawable transitions properly
                 return true;
             }
             case MotionEvent.ACTION_MOVE: {
-                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-                    Drawable current = mControlsBacks.get(selectedControl);
-                    if (current != null) { // happens only when [mSelectedControl != CONTROL_NONE] but couldn't find out why
-                        current.setHotspot(event.getX(), event.getY());
-                    }
+                if (mSelectedControl != CONTROL_NONE && mControlBack != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+                    mControlBack.setHotspot(event.getX(), event.getY());
                 }
 
                 if (mSelectedControl == CONTROL_NONE) {
-                    float percent = event.getX() / (float) mWidth;
                     int oldValue = mValue;
-                    mValue = (int) Math.floor(percent * (mMaxValue - mMinValue)) + mMinValue;
-                    normalizeValue();
+                    // process all batched samples in one pass, listener is notified only once per event
+                    int historySize = event.getHistorySize();
+                    for (int i = 0; i < historySize; i++) {
+                        dragTo(event.getHistoricalX(i));
+                        if (mTouchPredictor != null) {
+                            mTouchPredictor.addSample(event.getHistoricalX(i), event.getHistoricalEventTime(i));
+                        }
+                    }
+                    dragTo(event.getX());
+                    if (mTouchPredictor != null) {
+                        mTouchPredictor.addSample(event.getX(), event.getEventTime());
+                    }
 
                     if (mValue != oldValue) {
-                        float thisDelta = mLastX - event.getX();
-                        mLastX = event.getX();
-                        // 'minus' because we want to go in the opposite direction
-                        mDelta -= thisDelta / (mDensityFactor / 2f);
                         notifyListener(oldValue, mValue);
                     }
                 }
 
-                mHandler.removeCallbacks(mInvalidator);
-                mHandler.post(mInvalidator);
+                postRedraw();
                 return true;
             }
             case MotionEvent.ACTION_UP:
             case MotionEvent.ACTION_CANCEL: {
                 getParent().requestDisallowInterceptTouchEvent(false);
                 setPressed(false);
+                if (mTouchPredictor != null) {
+                    mTouchPredictor.reset();
+                }
 
-                Drawable current = mControlsBacks.get(selectedControl);
-                if (current != null) { // happens only when [mSelectedControl != CONTROL_NONE] but couldn't find out why
-                    current.setState(STATE_NORMAL);
+                if (mSelectedControl != CONTROL_NONE && mControlBack != null) {
+                    mControlBack.setState(STATE_NORMAL);
                 }
                 if (mSelectedControl != CONTROL_NONE) {
                     onControlClicked(mSelectedControl);
@@ -742,7 +1979,7 @@ public class ActualNumberPicker extends View {
                 mSelectedControl = CONTROL_NONE;
 
                 mLastX = Float.MAX_VALUE;
-                mHandler.post(mInvalidator);
+                postRedraw();
                 return true;
             }
         }
@@ -750,6 +1987,122 @@ public class ActualNumberPicker extends View {
         return super.onTouchEvent(event);
     }
 
+    @Override
+    public boolean onKeyDown(int keyCode, KeyEvent event) {
+        // keys that can't move the value anymore fall through, so that focus can leave the picker at either end of the range
+        switch (keyCode) {
+            case KeyEvent.KEYCODE_DPAD_LEFT:
+            case KeyEvent.KEYCODE_MINUS: {
+                if (canStep(false)) {
+                    queueSteps(-1, 0);
+                    return true;
+                }
+                break;
+            }
+            case KeyEvent.KEYCODE_DPAD_RIGHT:
+            case KeyEvent.KEYCODE_PLUS: {
+                if (canStep(true)) {
+                    queueSteps(1, 0);
+                    return true;
+                }
+                break;
+            }
+            case KeyEvent.KEYCODE_PAGE_DOWN: {
+                if (canStep(false)) {
+                    queueSteps(0, -1);
+                    return true;
+                }
+                break;
+            }
+            case KeyEvent.KEYCODE_PAGE_UP: {
+                if (canStep(true)) {
+                    queueSteps(0, 1);
+                    return true;
+                }
+                break;
+            }
+        }
+        return super.onKeyDown(keyCode, event);
+    }
+
+    /**
+     * Checks whether the value can still move in the given direction once the already queued steps are applied.
+     *
+     * @param up {@code True} to check towards the maximum, {@code false} towards the minimum
+     * @return {@code True} if a step in that direction would change the value
+     */
+    private boolean canStep(boolean up) {
+        int steps = (int) mPendingSteps;
+        long target = (long) (mPendingFastSteps != 0 ? fastStep(mValue, mPendingFastSteps) : mValue) + steps;
+        long queued = Math.max(mMinValue, Math.min(mMaxValue, target));
+        return up ? queued < mMaxValue : queued > mMinValue;
+    }
+
+    @Override
+    @TargetApi(Build.VERSION_CODES.HONEYCOMB_MR1)
+    public boolean onGenericMotionEvent(MotionEvent event) {
+        if (event.getAction() == MotionEvent.ACTION_SCROLL) {
+            if ((event.getSource() & InputDevice.SOURCE_CLASS_POINTER) != 0) {
+                // mouse wheel or touchpad, prefer horizontal scrolling as the picker is horizontal
+                float steps = event.getAxisValue(MotionEvent.AXIS_HSCROLL);
+                if (steps == 0) {
+                    steps = event.getAxisValue(MotionEvent.AXIS_VSCROLL);
+                }
+                queueSteps(steps, 0);
+                return true;
+            } else if ((event.getSource() & SOURCE_ROTARY_ENCODER) == SOURCE_ROTARY_ENCODER) {
+                queueSteps(event.getAxisValue(AXIS_SCROLL), 0);
+                return true;
+            }
+        }
+        return super.onGenericMotionEvent(event);
+    }
+
+    /**
+     * Accumulates value steps from non-touch input. No matter how many events arrive, the accumulated steps are applied only once per
+     * frame, with a single redraw and a single listener notification.
+     *
+     * @param steps How many single steps to move the value by (fractions are kept until they add up to a whole step)
+     * @param fastSteps How many fast steps (same as the fast controls) to move the value by
+     */
+    private void queueSteps(float steps, int fastSteps) {
+        mPendingSteps += steps;
+        mPendingFastSteps += fastSteps;
+        if (!mStepsScheduled) {
+            mStepsScheduled = true;
+            ViewCompat.postOnAnimation(this, mStepsApplier);
+        }
+    }
+
+    /**
+     * Applies all steps accumulated during the last frame, see {@link #queueSteps(float, int)}.
+     */
+    private Runnable mStepsApplier = new Runnable() {
+        @Override
+        public void run() {
+            mStepsScheduled = false;
+
+            int steps = (int) mPendingSteps;
+            int fastSteps = mPendingFastSteps;
+            mPendingSteps -= steps;
+            mPendingFastSteps = 0;
+            if (steps == 0 && fastSteps == 0) {
+                return;
+            }
+
+            int oldValue = mValue;
+            long target = (long) (fastSteps != 0 ? fastStep(mValue, fastSteps) : mValue) + steps;
+            mValue = (int) Math.max(mMinValue, Math.min(mMaxValue, target));
+
+            if (oldValue != mValue) {
+                // 'density / 2' to match the touch and control movement
+                mDelta += (steps * mBarWidth + fastSteps * 0.1f * mWidth) / (mDensityFactor / 2f);
+                notifyListener(oldValue, mValue);
+                invalidate();
+            }
+        }
+    };
+
     /**
      * Penner's linear easing function, plotted by time and distance for a motion tween. Can be used for density, width and other properties
      * that should behave the same.
@@ -958,6 +2311,34 @@ public class ActualNumberPicker extends View {
         return (int) Math.floor(height);
     }
 
+    /**
+     * Prepares the bar fading shader for the current width, if not already cached. The shader samples the same opacity curve as
+     * {@link #calculateBarOpacity(int, int, float, int)} so both fading modes look the same. With gradient bars enabled, bar colors also
+     * move from the bar color in the middle towards its darker variant on the edges.
+     */
+    private void updateBarShader() {
+        if (mBarShader != null && mBarShaderWidth == mWidth) {
+            return;
+        }
+
+        int edgeColor = mGradientBars ? Coloring.get().darkenColor(mBarColor) : mBarColor;
+        int[] colors = new int[FADE_SHADER_STOPS];
+        float[] positions = new float[FADE_SHADER_STOPS];
+        float halfWidth = mWidth / 2f;
+        for (int i = 0; i < FADE_SHADER_STOPS; i++) {
+            positions[i] = (float) i / (float) (FADE_SHADER_STOPS - 1);
+            float x = positions[i] * mWidth;
+            int opacity = calculateBarOpacity(MIN_BAR_OPACITY, 255, x, mWidth);
+            int color = mGradientBars ? Coloring.get().blendColors(mBarColor, edgeColor, Math.abs(x - halfWidth) / halfWidth) : mBarColor;
+            colors[i] = (opacity << 24) | (color & 0x00FFFFFF);
+        }
+
+        mBarShader = new LinearGradient(0, 0, mWidth, 0, colors, positions, Shader.TileMode.CLAMP);
+        mBarShaderWidth = mWidth;
+        mBarPaint.setColor(Color.WHITE); // opaque, alpha comes from the shader
+        mBarPaint.setShader(mBarShader);
+    }
+
     /**
      * A periodic updater for animations. This should be kept clean, as it forces a call to the {@link #onDraw(Canvas)} method.
      */
@@ -971,28 +2352,105 @@ public class ActualNumberPicker extends View {
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
+        // a detached picker can still be drawn, e.g. into a bitmap
+        reloadStaleIcons();
+
+        if (mQualityGovernor != null && isAnimatingContinuously()) {
+            startFrameMeter();
+        }
+
+        if (mIdleSnapshotEnabled && mWidth > 0 && mHeight > 0 && isIdle()) {
+            if (!mIdleSnapshotValid) {
+                renderIdleSnapshot();
+            }
+            canvas.drawBitmap(mIdleSnapshot, 0, 0, null);
+        } else if (mTouchPredictor != null && mSelectedControl == CONTROL_NONE && mLastX != Float.MAX_VALUE
+                && mTouchPredictor.hasSamples()) {
+            drawPredicted(canvas);
+        } else {
+            drawPicker(canvas);
+        }
+    }
+
+    /**
+     * Draws the picker as if the finger was already at the predicted position, then goes back to the real drag state. The next touch
+     * event continues from the real position, so mispredictions are not carried over.
+     *
+     * @param canvas Where to draw
+     */
+    private void drawPredicted(Canvas canvas) {
+        int value = mValue;
+        float delta = mDelta;
+        float lastX = mLastX;
+
+        dragTo(mTouchPredictor.predict(SystemClock.uptimeMillis()));
+        drawPicker(canvas);
+
+        mValue = value;
+        mDelta = delta;
+        mLastX = lastX;
+    }
+
+    /**
+     * Draws the picker into the idle snapshot bitmap, reusing the bitmap when the size did not change.
+     */
+    private void renderIdleSnapshot() {
+        if (mIdleSnapshot == null || mIdleSnapshot.getWidth() != mWidth || mIdleSnapshot.getHeight() != mHeight) {
+            if (mIdleSnapshot != null) {
+                mIdleSnapshot.recycle();
+            }
+            mIdleSnapshot = Bitmap.createBitmap(mWidth, mHeight, Bitmap.Config.ARGB_8888);
+            if (mIdleSnapshotCanvas == null) {
+                mIdleSnapshotCanvas = new Canvas();
+            }
+            mIdleSnapshotCanvas.setBitmap(mIdleSnapshot);
+        } else {
+            mIdleSnapshot.eraseColor(Color.TRANSPARENT);
+        }
 
+        drawPicker(mIdleSnapshotCanvas);
+        mIdleSnapshotValid = true;
+    }
+
+    /**
+     * Draws all of the picker's components (text, bars and controls) onto the given canvas.
+     *
+     * @param canvas Where to draw
+     */
+    private void drawPicker(Canvas canvas) {
         if (mShowText) {
-            String value = String.valueOf((int) Math.floor(mValue));
+            int length = formatValue(mValue, mTextChars);
             // this will save dimensions to mTextDimens
-            measureText(value);
+            measureText(mTextChars, length);
             int x = mWidth / 2 - mTextDimens.x / 2;
             int y = mHeight / 2 + mTextDimens.y / 2;
-            canvas.drawText(value, x, y, mTextPaint);
+            if (mLabelWheel != null) {
+                if (mLabelWheel.draw(canvas, mTextPaint, mValue, mMinValue, mMaxValue, mWidth, y)) {
+                    // still sliding towards the current value
+                    ViewCompat.postInvalidateOnAnimation(this);
+                }
+            } else {
+                canvas.drawText(mTextChars, 0, length, x, y, mTextPaint);
+            }
             // update bounds to re-use later
             mTextBounds.set(x, y, x + mTextBounds.width(), y + mTextBounds.height());
         }
 
         if (mShowBars) {
+            PickerTrace.begin(PickerTrace.DRAW_BARS);
             // draw all bars, but draw one more in the end with '<=' instead of '<' (to be symmetric)
             int opacity, barH;
             float linearX, insideX, x, y;
             int maxBarH = (int) Math.floor(0.5f * mHeight);
             int minBarH = (int) Math.floor(maxBarH * 0.95f);
-            int minOpacity = 50;
-            for (int i = 0; i <= mBarCount; i++) {
+            int barCount = getEffectiveBarCount();
+            boolean shaderFade = mShaderFade && mWidth > 0;
+            if (shaderFade) {
+                updateBarShader();
+            }
+            for (int i = 0; i <= barCount; i++) {
                 // calculate bar X coordinate
-                linearX = mDelta + (float) i / (float) mBarCount * (float) mWidth;
+                linearX = mDelta + (float) i / (float) barCount * (float) mWidth;
                 insideX = repositionInside(linearX, mWidth);
                 x = (float) Math.floor(easeInOut(insideX, 0f, 1f, mWidth) * mWidth);
                 // calculate bar height
@@ -1002,49 +2460,293 @@ public class ActualNumberPicker extends View {
                 // don't draw if it overlaps the text
                 mBarBounds.set(x - mBarWidth / 2f, y, x + mBarWidth, y + barH);
                 if (!textOverlapsBar(mTextBounds, mBarBounds) && !controlsOverlapBar(mControlIcons, mBarBounds)) {
-                    opacity = calculateBarOpacity(minOpacity, 255, x, mWidth);
-                    mBarPaint.setAlpha(opacity);
+                    if (!shaderFade) {
+                        opacity = calculateBarOpacity(MIN_BAR_OPACITY, 255, x, mWidth);
+                        mBarPaint.setAlpha(opacity);
+                    }
                     canvas.drawRoundRect(mBarBounds, mBarBounds.width() / 3f, mBarBounds.width() / 3f, mBarPaint);
                 }
             }
+            PickerTrace.end();
         }
 
-        if (mShowControls) {
-            mControlsBacks.get(ARR_LEFT).draw(canvas);
-            mControlsBacks.get(ARR_RIGHT).draw(canvas);
-
-            if (mShowHighlight) {
-                int radius = mControlIcons.get(ARR_LEFT).getBounds().width() / 2;
-                int leftCX = mControlIcons.get(ARR_LEFT).getBounds().centerX();
-                int leftCY = mControlIcons.get(ARR_LEFT).getBounds().centerY();
-                canvas.drawCircle(leftCX, leftCY, radius, mHighlightPaint);
-
-                int rightCX = mControlIcons.get(ARR_RIGHT).getBounds().centerX();
-                int rightCY = mControlIcons.get(ARR_RIGHT).getBounds().centerY();
-                canvas.drawCircle(rightCX, rightCY, radius, mHighlightPaint);
-            }
+        if (mShowControls || mShowFastControls) {
+            PickerTrace.begin(PickerTrace.DRAW_CONTROLS);
+            drawControls(canvas);
+            PickerTrace.end();
+        }
+    }
 
-            mControlIcons.get(ARR_LEFT).draw(canvas);
-            mControlIcons.get(ARR_RIGHT).draw(canvas);
+    /**
+     * Draws the background of the last pressed control (which may still be animating), and then the highlights and icons of all visible
+     * controls.
+     *
+     * @param canvas Where to draw
+     */
+    private void drawControls(Canvas canvas) {
+        if (mActiveBackground != CONTROL_NONE && mControlBack != null) {
+            mControlBack.draw(canvas);
         }
 
+        if (mShowControls) {
+            drawControl(canvas, ARR_LEFT);
+            drawControl(canvas, ARR_RIGHT);
+        }
         if (mShowFastControls) {
-            mControlsBacks.get(FAST_ARR_LEFT).draw(canvas);
-            mControlsBacks.get(FAST_ARR_RIGHT).draw(canvas);
-
-            if (mShowHighlight) {
-                int radius = mControlIcons.get(FAST_ARR_LEFT).getBounds().width() / 2;
-                int leftCX = mControlIcons.get(FAST_ARR_LEFT).getBounds().centerX();
-                int leftCY = mControlIcons.get(FAST_ARR_LEFT).getBounds().centerY();
-                canvas.drawCircle(leftCX, leftCY, radius, mHighlightPaint);
-
-                int rightCX = mControlIcons.get(FAST_ARR_RIGHT).getBounds().centerX();
-                int rightCY = mControlIcons.get(FAST_ARR_RIGHT).getBounds().centerY();
-                canvas.drawCircle(rightCX, rightCY, radius, mHighlightPaint);
+            drawControl(canvas, FAST_ARR_LEFT);
+            drawControl(canvas, FAST_ARR_RIGHT);
+        }
+    }
+
+    /**
+     * Draws the highlight (if visible) and the icon of the given control. The blurred highlight is a small bitmap shared through the
+     * {@link PickerStyle}, so the blur is never computed while drawing.
+     *
+     * @param canvas Where to draw
+     * @param control Which control to draw
+     */
+    private void drawControl(Canvas canvas, @Control int control) {
+        Drawable icon = mControlIcons.get(control);
+        if (mShowHighlight) {
+            Rect bounds = icon.getBounds();
+            int radius = bounds.width() / 2;
+            if (getQualityLevel() >= QUALITY_NO_BLUR) {
+                canvas.drawCircle(bounds.centerX(), bounds.centerY(), radius, mStyle.getFlatHighlightPaint());
+            } else {
+                Bitmap highlight = mStyle.getHighlightBitmap(radius);
+                float left = bounds.centerX() - highlight.getWidth() / 2f;
+                float top = bounds.centerY() - highlight.getHeight() / 2f;
+                canvas.drawBitmap(highlight, left, top, null);
             }
+        }
+        icon.draw(canvas);
+    }
+
+    /**
+     * A batch of configuration changes for one picker, obtained from {@link ActualNumberPicker#edit()}. Setters only record the changes,
+     * the picker is not touched until {@link #apply()} is called. All setters return the same editor, so calls can be chained.<br>
+     * <b>Note</b>: Must be applied on the main thread.
+     */
+    public static final class Editor {
+
+        private final ActualNumberPicker mPicker;
+
+        private int mMinValue;
+        private int mMaxValue;
+        private int mValue;
+        private boolean mValueSet = false;
+
+        private float mTextSize;
+        private int mTextColor;
+        private boolean mShowText;
+
+        private int mBarColor;
+        private int mBarCount;
+        private boolean mAutoBarCount;
+        private int mBarWidth;
+        private boolean mShowBars;
+
+        private int mControlsColor;
+        private int mFastControlsColor;
+        private int mHighlightColor;
+        private int mSelectionColor;
+        private boolean mShowControls;
+        private boolean mShowFastControls;
+        private boolean mShowHighlight;
+        private boolean mDrawOverText;
+        private boolean mDrawOverControls;
+
+        private Editor(ActualNumberPicker picker) {
+            mPicker = picker;
+            mMinValue = picker.mMinValue;
+            mMaxValue = picker.mMaxValue;
+            mValue = picker.mValue;
+            mTextSize = picker.mTextSize;
+            mTextColor = picker.mTextColor;
+            mShowText = picker.mShowText;
+            mBarColor = picker.mBarColor;
+            mBarCount = picker.mBarCount;
+            mAutoBarCount = picker.mAutoBarCount;
+            mBarWidth = picker.mBarWidth;
+            mShowBars = picker.mShowBars;
+            mControlsColor = picker.mStyle.getControlsColor();
+            mFastControlsColor = picker.mStyle.getFastControlsColor();
+            mHighlightColor = picker.mStyle.getHighlightColor();
+            mSelectionColor = picker.mSelectionColor;
+            mShowControls = picker.mShowControls;
+            mShowFastControls = picker.mShowFastControls;
+            mShowHighlight = picker.mShowHighlight;
+            mDrawOverText = picker.mDrawOverText;
+            mDrawOverControls = picker.mDrawOverControls;
+        }
 
-            mControlIcons.get(FAST_ARR_LEFT).draw(canvas);
-            mControlIcons.get(FAST_ARR_RIGHT).draw(canvas);
+        /**
+         * Sets the value range. If no value is set on this editor and the current value falls out of the new range, the middle of the range
+         * is selected, same as with {@link ActualNumberPicker#setMinValue(int)}.<br>
+         * <b>Note</b>: In the fixed-point decimal mode (see {@link ActualNumberPicker#setDecimalValues}), the range is in step indices.
+         *
+         * @param minValue Minimum value to display by the number picker
+         * @param maxValue Maximum value to display by the number picker, must be greater than the minimum
+         * @return This editor
+         */
+        public Editor setRange(int minValue, int maxValue) {
+            mMinValue = minValue;
+            mMaxValue = maxValue;
+            return this;
+        }
+
+        /**
+         * Sets the value to select.<br>
+         * <b>Note</b>: In the fixed-point decimal mode (see {@link ActualNumberPicker#setDecimalValues}), the value is a step index; use
+         * {@link ActualNumberPicker#setDecimalValue(long)} to select a decimal value.
+         *
+         * @param value Which value to select, must be in the range when applied
+         * @return This editor
+         */
+        public Editor setValue(int value) {
+            mValue = value;
+            mValueSet = true;
+            return this;
+        }
+
+        /**
+         * @param size A dimension representing the text size, or {@code -1.0f} to use maximum sized text
+         * @return This editor
+         */
+        public Editor setTextSize(float size) {
+            mTextSize = size;
+            return this;
+        }
+
+        /**
+         * @param color Color of the text showing the current value
+         * @return This editor
+         */
+        public Editor setTextColor(int color) {
+            mTextColor = color;
+            return this;
+        }
+
+        /**
+         * @param showText Whether to show the text with the current value
+         * @return This editor
+         */
+        public Editor setShowText(boolean showText) {
+            mShowText = showText;
+            return this;
+        }
+
+        /**
+         * @param color Color of all the vertical bars
+         * @return This editor
+         */
+        public Editor setBarColor(int color) {
+            mBarColor = color;
+            return this;
+        }
+
+        /**
+         * @param count How many bars to draw, at least 3; or {@code 0} to scale the bar count with the view width
+         * @return This editor
+         */
+        public Editor setBarCount(int count) {
+            mAutoBarCount = count == 0;
+            mBarCount = count < 3 ? DEFAULT_BAR_COUNT : count;
+            return this;
+        }
+
+        /**
+         * @param width Bar width in pixels, restored to the minimum bar width if smaller
+         * @return This editor
+         */
+        public Editor setBarWidth(int width) {
+            mBarWidth = width;
+            return this;
+        }
+
+        /**
+         * @param showBars Whether to show the vertical bars
+         * @return This editor
+         */
+        public Editor setShowBars(boolean showBars) {
+            mShowBars = showBars;
+            return this;
+        }
+
+        /**
+         * Sets the colors of the control icons and highlights. Pickers using the same colors share the tinted icons, see
+         * {@link PickerStyle}.
+         *
+         * @param controlsColor Color of the arrows
+         * @param fastControlsColor Color of the double arrows
+         * @param highlightColor Color of the highlight circles behind the controls
+         * @return This editor
+         */
+        public Editor setControlColors(int controlsColor, int fastControlsColor, int highlightColor) {
+            mControlsColor = controlsColor;
+            mFastControlsColor = fastControlsColor;
+            mHighlightColor = highlightColor;
+            return this;
+        }
+
+        /**
+         * @param color Color of the touch highlight on the controls
+         * @return This editor
+         */
+        public Editor setSelectionColor(int color) {
+            mSelectionColor = color;
+            return this;
+        }
+
+        /**
+         * @param showControls Whether to show the slow arrow controls
+         * @param showFastControls Whether to show the fast (double) arrow controls
+         * @return This editor
+         */
+        public Editor setShowControls(boolean showControls, boolean showFastControls) {
+            mShowControls = showControls;
+            mShowFastControls = showFastControls;
+            return this;
+        }
+
+        /**
+         * @param showHighlight Whether to show the blurry highlight behind each of the controls
+         * @return This editor
+         */
+        public Editor setShowHighlight(boolean showHighlight) {
+            mShowHighlight = showHighlight;
+            return this;
+        }
+
+        /**
+         * @param drawOverText Whether to draw the bars over the text
+         * @param drawOverControls Whether to draw the bars over the controls
+         * @return This editor
+         */
+        public Editor setDrawOver(boolean drawOverText, boolean drawOverControls) {
+            mDrawOverText = drawOverText;
+            mDrawOverControls = drawOverControls;
+            return this;
+        }
+
+        /**
+         * Validates and applies all changes to the picker at once. Layout and redraw are requested once, and the listener is notified only
+         * if the value changed.
+         */
+        public void apply() {
+            if (!isMainThread()) {
+                throw new RuntimeException("Cannot apply picker changes outside of the main thread");
+            }
+            if (mMaxValue <= mMinValue) {
+                throw new RuntimeException("Cannot use max_value " + mMaxValue + " because the min_value is " + mMinValue);
+            }
+            if (mValue < mMinValue || mValue > mMaxValue) {
+                if (mValueSet) {
+                    throw new RuntimeException("Cannot use value " + mValue + " because it is out of range");
+                }
+                mValue = (mMaxValue + mMinValue) / 2;
+            }
+            mPicker.applyEditor(this);
         }
 
     }
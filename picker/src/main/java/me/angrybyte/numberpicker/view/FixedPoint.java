@@ -0,0 +1,89 @@
+
+package me.angrybyte.numberpicker.view;
+
+/**
+ * Integer-only helpers for fixed-point decimal values. A fixed-point value is a {@code long} scaled by {@code 10^scale}, e.g. with a scale
+ * of {@code 2}, {@code 1.05} is stored as {@code 105}. Nothing here allocates.
+ */
+final class FixedPoint {
+
+    /**
+     * Biggest supported scale, {@code 10^18} still fits into a {@code long}.
+     */
+    static final int MAX_SCALE = 18;
+
+    /**
+     * Big enough for any {@code long} with any supported scale: sign, leading zero, decimal point and 19 digits.
+     */
+    static final int MAX_LENGTH = 1 + 1 + 1 + Math.max(19, MAX_SCALE + 1);
+
+    private FixedPoint() {}
+
+    /**
+     * Writes the decimal representation of the scaled value to the start of the given buffer.
+     *
+     * @param scaledValue Which value to format
+     * @param scale How many decimal places are in the value
+     * @param destination Where to write the characters, should be at least {@link #MAX_LENGTH} long
+     * @return How many characters were written
+     */
+    static int format(long scaledValue, int scale, char[] destination) {
+        boolean negative = scaledValue < 0;
+        // work with the negative value, this way Long.MIN_VALUE can be formatted too
+        long remaining = negative ? scaledValue : -scaledValue;
+        int position = destination.length;
+        int digits = 0;
+
+        do {
+            if (digits == scale && scale > 0) {
+                destination[--position] = '.';
+            }
+            destination[--position] = (char) ('0' - (remaining % 10));
+            remaining /= 10;
+            digits++;
+        } while (remaining != 0 || digits <= scale);
+
+        if (negative) {
+            destination[--position] = '-';
+        }
+
+        int length = destination.length - position;
+        System.arraycopy(destination, position, destination, 0, length);
+        return length;
+    }
+
+    /**
+     * Finds the step index nearest to the given scaled value, restored into the [{@code 0}, {@code maxIndex}] range.
+     *
+     * @param scaledValue Which value to snap
+     * @param scaledMin Scaled value at index {@code 0}
+     * @param scaledStep Scaled difference between two neighbor indices, must be positive
+     * @param maxIndex The last allowed index
+     * @return Index of the nearest step
+     */
+    static int snap(long scaledValue, long scaledMin, long scaledStep, int maxIndex) {
+        if (scaledValue <= scaledMin) {
+            return 0;
+        }
+
+        long difference = scaledValue - scaledMin;
+        if (difference < 0) {
+            // overflowed, the value is further away than any valid range
+            return maxIndex;
+        }
+        // rounds half up, without adding anything that could overflow
+        long index = difference / scaledStep;
+        if (difference % scaledStep >= scaledStep - scaledStep / 2) {
+            index++;
+        }
+        return index >= maxIndex ? maxIndex : (int) index;
+    }
+
+    /**
+     * Converts a step index back to the scaled value.
+     */
+    static long valueAt(int index, long scaledMin, long scaledStep) {
+        return scaledMin + index * scaledStep;
+    }
+
+}
@@ -0,0 +1,189 @@
+
+package me.angrybyte.numberpicker.view;
+
+import android.graphics.Canvas;
+import android.os.SystemClock;
+import android.text.TextPaint;
+import android.util.SparseIntArray;
+
+/**
+ * Draws the picker value together with its neighbor values, sliding along as the value changes. Only the labels that are actually visible
+ * are laid out and drawn, using a small recycled pool, so the drawing cost does not depend on the size of the value range. Big jumps (e.g.
+ * from the fast controls) animate through all the labels in between.
+ */
+final class LabelWheel {
+
+    private static final float SPACING_FACTOR = 2.5f; // label spacing, relative to the text size
+    private static final float HALF_LIFE_MS = 60f; // how fast the wheel settles
+    private static final float SETTLE_THRESHOLD = 0.01f;
+    private static final int MAX_CACHED_WIDTHS = 256;
+
+    /**
+     * One pooled label, keeps its text as long as it shows the same value.
+     */
+    private static final class Label {
+        int value;
+        String text;
+    }
+
+    private final ActualNumberPicker mPicker;
+    private final char[] mChars = new char[FixedPoint.MAX_LENGTH];
+    private Label[] mPool = new Label[0];
+    private final SparseIntArray mWidths = new SparseIntArray();
+    private float mCachedTextSize = -1;
+
+    // how many values the wheel still has to travel to reach the current value
+    private float mOffset = 0;
+    private long mLastFrameMs = 0;
+
+    /**
+     * @param picker Which picker's values to show, used for formatting the labels
+     */
+    LabelWheel(ActualNumberPicker picker) {
+        mPicker = picker;
+    }
+
+    /**
+     * Forgets all label texts and widths, e.g. when the value formatting changes.
+     */
+    void clearLabels() {
+        for (Label label : mPool) {
+            label.text = null;
+        }
+        mWidths.clear();
+    }
+
+    /**
+     * Starts sliding the wheel from the previously shown value to the new one.
+     *
+     * @param change By how much the value changed (new - old)
+     */
+    void onValueChanged(int change) {
+        if (mOffset == 0) {
+            mLastFrameMs = SystemClock.uptimeMillis();
+        }
+        mOffset += change;
+    }
+
+    /**
+     * Stops the sliding animation, the current value is shown immediately.
+     */
+    void reset() {
+        mOffset = 0;
+    }
+
+    /**
+     * @return {@code True} while the wheel is still sliding towards the current value
+     */
+    boolean isAnimating() {
+        return mOffset != 0;
+    }
+
+    /**
+     * Draws all visible labels.
+     *
+     * @param canvas Where to draw
+     * @param paint Which paint to draw the labels with (its alpha is restored afterwards)
+     * @param value The current value, shown in the middle once the wheel settles
+     * @param minValue Minimum value, no labels are drawn below it
+     * @param maxValue Maximum value, no labels are drawn above it
+     * @param width How wide is the view
+     * @param baseline Where the text baseline is on the Y-axis
+     * @return {@code True} if the wheel is still animating and needs another frame
+     */
+    boolean draw(Canvas canvas, TextPaint paint, int value, int minValue, int maxValue, int width, float baseline) {
+        advance();
+
+        if (paint.getTextSize() != mCachedTextSize) {
+            mWidths.clear();
+            mCachedTextSize = paint.getTextSize();
+        }
+
+        float spacing = paint.getTextSize() * SPACING_FACTOR;
+        float halfWidth = width / 2f;
+        float center = value - mOffset;
+        int visibleHalf = (int) Math.ceil(halfWidth / spacing) + 1;
+        long first = Math.max((long) minValue, (long) Math.floor(center) - visibleHalf);
+        long last = Math.min((long) maxValue, (long) Math.ceil(center) + visibleHalf);
+        ensurePoolSize((int) Math.max(0, last - first + 1));
+
+        int originalAlpha = paint.getAlpha();
+        for (long v = first; v <= last; v++) {
+            float x = halfWidth + (v - center) * spacing;
+            float distance = Math.abs(x - halfWidth) / halfWidth;
+            if (distance >= 1f) {
+                continue;
+            }
+
+            Label label = obtainLabel((int) v);
+            int labelWidth = measure(label, paint);
+            paint.setAlpha((int) (originalAlpha * (1f - distance)));
+            canvas.drawText(label.text, x - labelWidth / 2f, baseline, paint);
+        }
+        paint.setAlpha(originalAlpha);
+
+        return isAnimating();
+    }
+
+    /**
+     * Moves the wheel towards the current value, depending on the time passed since the last frame.
+     */
+    private void advance() {
+        long now = SystemClock.uptimeMillis();
+        if (mOffset != 0) {
+            float elapsed = now - mLastFrameMs;
+            mOffset *= (float) Math.pow(0.5, elapsed / HALF_LIFE_MS);
+            if (Math.abs(mOffset) < SETTLE_THRESHOLD) {
+                mOffset = 0;
+            }
+        }
+        mLastFrameMs = now;
+    }
+
+    private void ensurePoolSize(int size) {
+        if (mPool.length >= size) {
+            return;
+        }
+
+        Label[] pool = new Label[size];
+        System.arraycopy(mPool, 0, pool, 0, mPool.length);
+        for (int i = mPool.length; i < size; i++) {
+            pool[i] = new Label();
+        }
+        mPool = pool;
+    }
+
+    /**
+     * Returns a pooled label for the given value. Each value always maps to the same slot, and visible values are consecutive, so visible
+     * labels never collide and keep their text while they stay visible.
+     */
+    private Label obtainLabel(int value) {
+        int slot = value % mPool.length;
+        if (slot < 0) {
+            slot += mPool.length;
+        }
+
+        Label label = mPool[slot];
+        if (label.text == null || label.value != value) {
+            label.value = value;
+            label.text = new String(mChars, 0, mPicker.formatValue(value, mChars));
+        }
+        return label;
+    }
+
+    /**
+     * Returns the label width, cached per value.
+     */
+    private int measure(Label label, TextPaint paint) {
+        int width = mWidths.get(label.value, -1);
+        if (width == -1) {
+            if (mWidths.size() >= MAX_CACHED_WIDTHS) {
+                mWidths.clear();
+            }
+            width = (int) Math.floor(paint.measureText(label.text));
+            mWidths.put(label.value, width);
+        }
+        return width;
+    }
+
+}
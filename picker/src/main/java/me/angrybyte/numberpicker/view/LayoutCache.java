@@ -0,0 +1,108 @@
+
+package me.angrybyte.numberpicker.view;
+
+/**
+ * A small, allocation-free (after warm-up) cache of computed picker layouts. Each layout is keyed by the view dimensions, the control size
+ * and a generation counter that the picker bumps whenever any other layout-relevant attribute changes. This way, repeated measure passes
+ * with unchanged inputs, as well as rotations back and forth, reuse previously computed text sizes and control positions.
+ */
+final class LayoutCache {
+
+    /**
+     * How many values are stored per rectangle (left, top, right, bottom).
+     */
+    static final int RECT_SIZE = 4;
+
+    private static final int DEFAULT_CAPACITY = 4;
+
+    /**
+     * One computed layout. Bounds are kept as a flat array of rectangles, in the order the picker writes them.
+     */
+    static final class Entry {
+
+        int width;
+        int height;
+        int controlSize;
+        int generation;
+        float textSize;
+        final int[] bounds;
+
+        private long lastUsed;
+        private boolean used;
+
+        Entry(int rectCount) {
+            bounds = new int[rectCount * RECT_SIZE];
+        }
+
+        /**
+         * @return {@code True} if this entry was computed for the given inputs
+         */
+        boolean matches(int width, int height, int controlSize, int generation) {
+            return used && this.width == width && this.height == height && this.controlSize == controlSize && this.generation == generation;
+        }
+    }
+
+    private final Entry[] mEntries;
+    private long mClock = 0;
+
+    LayoutCache(int rectCount) {
+        this(rectCount, DEFAULT_CAPACITY);
+    }
+
+    LayoutCache(int rectCount, int capacity) {
+        mEntries = new Entry[capacity];
+        for (int i = 0; i < capacity; i++) {
+            mEntries[i] = new Entry(rectCount);
+        }
+    }
+
+    /**
+     * Looks up a previously stored layout.
+     *
+     * @return The matching entry, or {@code null} if there is no layout for these inputs
+     */
+    Entry find(int width, int height, int controlSize, int generation) {
+        for (Entry entry : mEntries) {
+            if (entry.matches(width, height, controlSize, generation)) {
+                entry.lastUsed = ++mClock;
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns an entry for the given inputs, ready to be filled with the computed layout. Unused entries are taken first, then the least
+     * recently used one is recycled.
+     */
+    Entry obtain(int width, int height, int controlSize, int generation) {
+        Entry target = mEntries[0];
+        for (Entry entry : mEntries) {
+            if (!entry.used) {
+                target = entry;
+                break;
+            }
+            if (entry.lastUsed < target.lastUsed) {
+                target = entry;
+            }
+        }
+
+        target.width = width;
+        target.height = height;
+        target.controlSize = controlSize;
+        target.generation = generation;
+        target.used = true;
+        target.lastUsed = ++mClock;
+        return target;
+    }
+
+    /**
+     * Forgets all stored layouts.
+     */
+    void clear() {
+        for (Entry entry : mEntries) {
+            entry.used = false;
+        }
+    }
+
+}
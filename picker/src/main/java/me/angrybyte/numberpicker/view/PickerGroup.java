@@ -0,0 +1,232 @@
+package me.angrybyte.numberpicker.view;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.v4.view.ViewCompat;
+import android.util.AttributeSet;
+import android.view.View;
+import android.widget.LinearLayout;
+
+import java.util.ArrayList;
+
+import me.angrybyte.numberpicker.listener.OnGroupChangeListener;
+
+/**
+ * A container for several {@link ActualNumberPicker}s that belong together, e.g. day, month and year. All member pickers are driven from
+ * a single animation frame callback: their redraws are batched, constraints between them are applied, and then their listeners and the
+ * {@link OnGroupChangeListener} are notified, all at most once per frame.<br>
+ * Any {@link ActualNumberPicker} added as a direct child is a member, in the order of the children. Other children are laid out as usual.
+ * <br>
+ * <b>Note</b>: A group can have at most 32 member pickers.
+ */
+public class PickerGroup extends LinearLayout {
+
+    private static final int MAX_MEMBERS = 32;
+    private static final int MAX_CONSTRAINT_PASSES = 4;
+
+    /**
+     * Keeps group members consistent with each other, e.g. limits the day picker to the number of days in the selected month. Constraints
+     * run on the main thread, once per frame in which any member changed, before any listener is notified. Values changed by a constraint
+     * are delivered in the same frame.
+     */
+    public interface Constraint {
+
+        /**
+         * Adjusts the group members (values, ranges) after some of them changed.
+         *
+         * @param group The group to adjust
+         * @param changedMask Which members changed: bit {@code i} is set if the member at index {@code i} changed
+         */
+        void apply(@NonNull PickerGroup group, int changedMask);
+
+    }
+
+    private final ArrayList<ActualNumberPicker> mMembers = new ArrayList<>(4);
+    private final ArrayList<Constraint> mConstraints = new ArrayList<>(2);
+    private OnGroupChangeListener mListener;
+    private OnHierarchyChangeListener mHierarchyListener;
+    private boolean mFrameScheduled = false;
+
+    public PickerGroup(Context context) {
+        super(context);
+        init();
+    }
+
+    public PickerGroup(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        init();
+    }
+
+    public PickerGroup(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        init();
+    }
+
+    private void init() {
+        super.setOnHierarchyChangeListener(new OnHierarchyChangeListener() {
+            @Override
+            public void onChildViewAdded(View parent, View child) {
+                if (child instanceof ActualNumberPicker) {
+                    updateMembers();
+                }
+                if (mHierarchyListener != null) {
+                    mHierarchyListener.onChildViewAdded(parent, child);
+                }
+            }
+
+            @Override
+            public void onChildViewRemoved(View parent, View child) {
+                if (child instanceof ActualNumberPicker) {
+                    ((ActualNumberPicker) child).setGroup(null);
+                    updateMembers();
+                }
+                if (mHierarchyListener != null) {
+                    mHierarchyListener.onChildViewRemoved(parent, child);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void setOnHierarchyChangeListener(OnHierarchyChangeListener listener) {
+        // the group needs its own listener to track members, so the given one is called from there
+        mHierarchyListener = listener;
+    }
+
+    /**
+     * Collects member pickers from the children again, keeping the children order.
+     */
+    private void updateMembers() {
+        mMembers.clear();
+        for (int i = 0; i < getChildCount(); i++) {
+            View child = getChildAt(i);
+            if (child instanceof ActualNumberPicker) {
+                if (mMembers.size() == MAX_MEMBERS) {
+                    throw new RuntimeException("Cannot use more than " + MAX_MEMBERS + " pickers in a group");
+                }
+                ActualNumberPicker picker = (ActualNumberPicker) child;
+                picker.setGroup(this);
+                mMembers.add(picker);
+            }
+        }
+    }
+
+    /**
+     * Sets the {@link OnGroupChangeListener} to this group.
+     *
+     * @param listener Which listener to set
+     */
+    public void setListener(OnGroupChangeListener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * Adds a constraint between the group members. Constraints are applied in the order they were added.
+     *
+     * @param constraint Which constraint to add
+     */
+    public void addConstraint(@NonNull Constraint constraint) {
+        mConstraints.add(constraint);
+    }
+
+    /**
+     * Removes a previously added constraint.
+     *
+     * @param constraint Which constraint to remove
+     */
+    public void removeConstraint(@NonNull Constraint constraint) {
+        mConstraints.remove(constraint);
+    }
+
+    /**
+     * @return How many member pickers are in this group
+     */
+    public int getMemberCount() {
+        return mMembers.size();
+    }
+
+    /**
+     * @param index Index of the member, in the order of the children
+     * @return The member picker at the given index
+     */
+    @NonNull
+    public ActualNumberPicker getMember(int index) {
+        return mMembers.get(index);
+    }
+
+    /**
+     * @param picker Which picker to look for
+     * @return Index of the given picker in this group, or {@code -1} if it's not a member
+     */
+    public int indexOf(ActualNumberPicker picker) {
+        return mMembers.indexOf(picker);
+    }
+
+    /**
+     * Checks whether the member at the given index is marked as changed in the given mask.
+     *
+     * @param changedMask A mask received by a {@link Constraint} or an {@link OnGroupChangeListener}
+     * @param index Index of the member
+     * @return {@code True} if that member changed
+     */
+    public static boolean isChanged(int changedMask, int index) {
+        return (changedMask & (1 << index)) != 0;
+    }
+
+    /**
+     * Schedules the group frame, if not already scheduled. Called by the members when they need a redraw or changed their value.
+     */
+    void scheduleFrame() {
+        if (!mFrameScheduled) {
+            mFrameScheduled = true;
+            ViewCompat.postOnAnimation(this, mFrameCallback);
+        }
+    }
+
+    /**
+     * Runs once per frame while any member has something to do.
+     */
+    private Runnable mFrameCallback = new Runnable() {
+        @Override
+        public void run() {
+            // constraints may change other members, which then need another pass; those changes belong to this frame
+            int changedMask = pendingMask();
+            for (int pass = 0; changedMask != 0 && !mConstraints.isEmpty() && pass < MAX_CONSTRAINT_PASSES; pass++) {
+                for (int i = 0; i < mConstraints.size(); i++) {
+                    mConstraints.get(i).apply(PickerGroup.this, changedMask);
+                }
+                int newMask = pendingMask();
+                if (newMask == changedMask) {
+                    break;
+                }
+                changedMask = newMask;
+            }
+
+            mFrameScheduled = false;
+
+            // members redraw and notify their own listeners, changes made from listeners go to the next frame
+            int deliveredMask = 0;
+            for (int i = 0; i < mMembers.size(); i++) {
+                if (mMembers.get(i).flushGroupChange()) {
+                    deliveredMask |= 1 << i;
+                }
+            }
+            if (deliveredMask != 0 && mListener != null) {
+                PickerTrace.begin(PickerTrace.DISPATCH);
+                mListener.onGroupChanged(PickerGroup.this, deliveredMask);
+                PickerTrace.end();
+            }
+        }
+    };
+
+    private int pendingMask() {
+        int mask = 0;
+        for (int i = 0; i < mMembers.size(); i++) {
+            if (mMembers.get(i).isGroupChangePending()) {
+                mask |= 1 << i;
+            }
+        }
+        return mask;
+    }
+
+}
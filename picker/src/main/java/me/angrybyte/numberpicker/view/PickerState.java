@@ -0,0 +1,220 @@
+
+package me.angrybyte.numberpicker.view;
+
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A thread-safe model of the picker's value and range. Value, minimum and maximum are always published together as one immutable
+ * {@link Snapshot}, and all updates are lock-free compare-and-set loops, so this model can be written from any thread. The picker picks up
+ * the latest snapshot at most once per frame. When the picker and a worker thread change the model at the same time, the changes are
+ * merged field by field: fields the picker did not change keep the worker's values, and the value is restored into the merged range.
+ */
+public final class PickerState {
+
+    /**
+     * Notified (on the writing thread) when the model was changed through one of the public setters.
+     */
+    interface Observer {
+        void onStateChanged();
+    }
+
+    /**
+     * An immutable, consistent view of the picker state.
+     */
+    public static final class Snapshot {
+
+        private final int mValue;
+        private final int mMinValue;
+        private final int mMaxValue;
+
+        Snapshot(int value, int minValue, int maxValue) {
+            mValue = value;
+            mMinValue = minValue;
+            mMaxValue = maxValue;
+        }
+
+        /**
+         * @return Current number value
+         */
+        public int getValue() {
+            return mValue;
+        }
+
+        /**
+         * @return Minimum number allowed
+         */
+        public int getMinValue() {
+            return mMinValue;
+        }
+
+        /**
+         * @return Maximum number allowed
+         */
+        public int getMaxValue() {
+            return mMaxValue;
+        }
+
+        boolean equals(int value, int minValue, int maxValue) {
+            return mValue == value && mMinValue == minValue && mMaxValue == maxValue;
+        }
+    }
+
+    private final AtomicReference<Snapshot> mSnapshot;
+    private volatile Observer mObserver;
+
+    PickerState(int value, int minValue, int maxValue) {
+        mSnapshot = new AtomicReference<>(new Snapshot(value, minValue, maxValue));
+    }
+
+    void setObserver(Observer observer) {
+        mObserver = observer;
+    }
+
+    /**
+     * @return The latest published state
+     */
+    @NonNull
+    public Snapshot get() {
+        return mSnapshot.get();
+    }
+
+    /**
+     * Atomically replaces the state, but only if it is still the {@code expected} one.
+     *
+     * @param expected Which snapshot is expected to be current
+     * @param value New value, must be inside the new range
+     * @param minValue New minimum value
+     * @param maxValue New maximum value, must be bigger than {@code minValue}
+     * @return {@code True} if successful, {@code false} if some other thread changed the state in the meantime
+     */
+    public boolean compareAndSet(@NonNull Snapshot expected, int value, int minValue, int maxValue) {
+        if (maxValue <= minValue) {
+            throw new RuntimeException("Cannot use max_value " + maxValue + " because the min_value is " + minValue);
+        }
+        if (value < minValue || value > maxValue) {
+            throw new RuntimeException("Cannot use value " + value + " because it is out of range");
+        }
+
+        if (mSnapshot.compareAndSet(expected, new Snapshot(value, minValue, maxValue))) {
+            dispatchChange();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Sets a new value, restoring it into the current range if necessary.
+     *
+     * @param value Which value to set
+     */
+    public void setValue(int value) {
+        Snapshot current;
+        Snapshot update;
+        do {
+            current = mSnapshot.get();
+            int clamped = Math.max(current.mMinValue, Math.min(current.mMaxValue, value));
+            if (clamped == current.mValue) {
+                return;
+            }
+            update = new Snapshot(clamped, current.mMinValue, current.mMaxValue);
+        } while (!mSnapshot.compareAndSet(current, update));
+        dispatchChange();
+    }
+
+    /**
+     * Sets a new minimum value. If the current value falls out of the new range, it is moved to the middle of the range.
+     *
+     * @param minValue Minimum value to allow
+     */
+    public void setMinValue(int minValue) {
+        Snapshot current;
+        Snapshot update;
+        do {
+            current = mSnapshot.get();
+            if (current.mMaxValue <= minValue) {
+                throw new RuntimeException("Cannot use min_value " + minValue + " because the max_value is " + current.mMaxValue);
+            }
+            int value = minValue > current.mValue ? (current.mMaxValue + minValue) / 2 : current.mValue;
+            update = new Snapshot(value, minValue, current.mMaxValue);
+        } while (!mSnapshot.compareAndSet(current, update));
+        dispatchChange();
+    }
+
+    /**
+     * Sets a new maximum value. If the current value falls out of the new range, it is moved to the middle of the range.
+     *
+     * @param maxValue Maximum value to allow
+     */
+    public void setMaxValue(int maxValue) {
+        Snapshot current;
+        Snapshot update;
+        do {
+            current = mSnapshot.get();
+            if (maxValue <= current.mMinValue) {
+                throw new RuntimeException("Cannot use max_value " + maxValue + " because the min_value is " + current.mMinValue);
+            }
+            int value = maxValue < current.mValue ? (maxValue + current.mMinValue) / 2 : current.mValue;
+            update = new Snapshot(value, current.mMinValue, maxValue);
+        } while (!mSnapshot.compareAndSet(current, update));
+        dispatchChange();
+    }
+
+    /**
+     * Publishes the state as seen by the picker (on the main thread), without notifying the observer. Only the fields that differ from
+     * {@code base} are written; the others keep their current values, which other threads may have changed since the picker last synced.
+     * If the merged range is invalid, the picker's range wins as a whole.
+     *
+     * @param base The state the picker last published or applied
+     * @param value Value shown by the picker
+     * @param minValue Minimum value used by the picker
+     * @param maxValue Maximum value used by the picker
+     * @return The merged state, which may differ from the picker's own fields
+     */
+    @NonNull
+    Snapshot publish(@NonNull Snapshot base, int value, int minValue, int maxValue) {
+        Snapshot current;
+        Snapshot update;
+        do {
+            current = mSnapshot.get();
+            int min = minValue != base.mMinValue ? minValue : current.mMinValue;
+            int max = maxValue != base.mMaxValue ? maxValue : current.mMaxValue;
+            if (max <= min) {
+                min = minValue;
+                max = maxValue;
+            }
+            int merged = value != base.mValue ? value : current.mValue;
+            merged = Math.max(min, Math.min(max, merged));
+            if (current.equals(merged, min, max)) {
+                return current;
+            }
+            update = new Snapshot(merged, min, max);
+        } while (!mSnapshot.compareAndSet(current, update));
+        return update;
+    }
+
+    /**
+     * Replaces the state as a whole, without merging and without notifying the observer. Used when the picker is reconfigured (e.g.
+     * re-bound to another row), so that changes made for the previous configuration can't leak into the new one.
+     *
+     * @param value New value, must be inside the new range
+     * @param minValue New minimum value
+     * @param maxValue New maximum value, must be bigger than {@code minValue}
+     * @return The new state
+     */
+    @NonNull
+    Snapshot replace(int value, int minValue, int maxValue) {
+        Snapshot update = new Snapshot(value, minValue, maxValue);
+        mSnapshot.set(update);
+        return update;
+    }
+
+    private void dispatchChange() {
+        Observer observer = mObserver;
+        if (observer != null) {
+            observer.onStateChanged();
+        }
+    }
+
+}
@@ -0,0 +1,397 @@
+
+package me.angrybyte.numberpicker.view;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BlurMaskFilter;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.support.annotation.NonNull;
+import android.util.DisplayMetrics;
+import android.util.SparseArray;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import me.angrybyte.numberpicker.Coloring;
+import me.angrybyte.numberpicker.R;
+
+/**
+ * An immutable set of resources that can be shared between many {@link ActualNumberPicker}s with the same look. Tinted control icons, the
+ * pre-blurred highlights and the display density are created only once per unique configuration, and pickers create their own
+ * (cheap) drawable instances from the shared icon states.<br>
+ * <br>
+ * Styles are reference-counted: every {@link #obtain(Context, int, int, int)} must be balanced by a {@link #release()}. When the last
+ * reference is released, the icons and paints are dropped; they are created again if the style is used again. The cache itself holds
+ * styles weakly, so a style nobody refers to anymore is evicted by the garbage collector.
+ */
+public final class PickerStyle {
+
+    private static final Object sCacheLock = new Object();
+    private static final int HIGHLIGHT_BLUR_RADIUS = 10;
+    private static final Map<Key, WeakReference<PickerStyle>> sCache = new HashMap<>();
+
+    private final Key mKey;
+    private final Context mAppContext;
+    private final Resources mResources;
+    // icons and paints are created on first use, pickers without (fast) controls or highlights never need them
+    private final SparseArray<Drawable.ConstantState> mIconStates = new SparseArray<>(4);
+    // mutable (decoded for in-place tinting) and owned by this style only, so they can go back to the decode pool
+    private final ArrayList<Bitmap> mIconBitmaps = new ArrayList<>(4);
+    // blurred highlight circles, keyed by radius
+    private final SparseArray<Bitmap> mHighlightBitmaps = new SparseArray<>(2);
+    private Paint mHighlightPaint;
+    private Paint mFlatHighlightPaint;
+    private final float mDensityFactor;
+    private final int mMinBarWidth;
+    private final int mAutoBarSpacing;
+    private final int mMinHeight;
+    private final int mControlSize;
+    private int mIconBytes = 0;
+    private int mReferences = 0;
+    // changes whenever the icons are dropped, so pickers know their icon instances are stale
+    private int mGeneration = 0;
+
+    /**
+     * Returns a shared style for the given configuration, creating it if necessary. The caller now holds a reference to the style and must
+     * call {@link #release()} when done with it.
+     *
+     * @param context Which context to use for resources (the application context is retained, not this one)
+     * @param controlsColor Color of the normal arrow controls
+     * @param fastControlsColor Color of the fast arrow controls
+     * @param highlightColor Color of the highlight circles behind the controls
+     * @return A shared style instance
+     */
+    @NonNull
+    public static PickerStyle obtain(@NonNull Context context, int controlsColor, int fastControlsColor, int highlightColor) {
+        return get(context, controlsColor, fastControlsColor, highlightColor).retain();
+    }
+
+    /**
+     * Same as {@link #obtain(Context, int, int, int)}, but does not add a reference. Pickers use this until they are attached to a
+     * window, so that pickers which are created but never shown don't keep the style's resources alive.
+     */
+    @NonNull
+    static PickerStyle get(@NonNull Context context, int controlsColor, int fastControlsColor, int highlightColor) {
+        Context appContext = context.getApplicationContext();
+        int densityDpi = appContext.getResources().getDisplayMetrics().densityDpi;
+
+        synchronized (sCacheLock) {
+            Key key = new Key(controlsColor, fastControlsColor, highlightColor, densityDpi);
+            WeakReference<PickerStyle> reference = sCache.get(key);
+            PickerStyle style = reference == null ? null : reference.get();
+            if (style == null) {
+                purgeCache();
+                style = new PickerStyle(key, appContext);
+                sCache.put(key, new WeakReference<>(style));
+            }
+            return style;
+        }
+    }
+
+    /**
+     * Removes the cache entries of the styles that were garbage collected.
+     */
+    private static void purgeCache() {
+        Iterator<WeakReference<PickerStyle>> iterator = sCache.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().get() == null) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private PickerStyle(Key key, Context appContext) {
+        mKey = key;
+        mAppContext = appContext;
+        mResources = appContext.getResources();
+
+        // density is integer-divided on purpose, will be 1, 2, 3, 4... etc
+        mDensityFactor = key.densityDpi / DisplayMetrics.DENSITY_LOW;
+        mMinBarWidth = mResources.getDimensionPixelSize(R.dimen.min_bar_width);
+        mAutoBarSpacing = mResources.getDimensionPixelSize(R.dimen.auto_bar_spacing);
+        mMinHeight = mResources.getDimensionPixelSize(R.dimen.min_height);
+        mControlSize = mResources.getDimensionPixelSize(R.dimen.control_size);
+    }
+
+    /**
+     * Tints the icon resource of the given control and keeps its constant state for sharing.
+     */
+    private Drawable.ConstantState loadIconState(@ActualNumberPicker.Control int control) {
+        int resourceId;
+        int color;
+        switch (control) {
+            case ActualNumberPicker.ARR_LEFT: {
+                resourceId = R.drawable.ic_keyboard_arrow_left_black_24dp;
+                color = mKey.controlsColor;
+                break;
+            }
+            case ActualNumberPicker.ARR_RIGHT: {
+                resourceId = R.drawable.ic_keyboard_arrow_right_black_24dp;
+                color = mKey.controlsColor;
+                break;
+            }
+            case ActualNumberPicker.FAST_ARR_LEFT: {
+                resourceId = R.drawable.ic_keyboard_2arrows_left_black_24dp;
+                color = mKey.fastControlsColor;
+                break;
+            }
+            case ActualNumberPicker.FAST_ARR_RIGHT: {
+                resourceId = R.drawable.ic_keyboard_2arrows_right_black_24dp;
+                color = mKey.fastControlsColor;
+                break;
+            }
+            default: {
+                throw new RuntimeException("Cannot load icon for control " + control);
+            }
+        }
+
+        // decoded privately, so it's tinted in place instead of copied
+        Drawable icon = Coloring.get().colorDrawable(mAppContext, resourceId, color);
+        Drawable.ConstantState state = icon.getConstantState();
+        mIconStates.put(control, state);
+        if (icon instanceof BitmapDrawable) {
+            Bitmap bitmap = ((BitmapDrawable) icon).getBitmap();
+            mIconBitmaps.add(bitmap);
+            mIconBytes += bitmap.getRowBytes() * bitmap.getHeight();
+        }
+        return state;
+    }
+
+    /**
+     * Adds one more reference to this style. Resources dropped by the last {@link #release()} are created again on use.
+     *
+     * @return This style, for convenience
+     */
+    @NonNull
+    public PickerStyle retain() {
+        synchronized (sCacheLock) {
+            mReferences++;
+            return this;
+        }
+    }
+
+    /**
+     * Releases one reference to this style. When no references are left, the tinted icon bitmaps go back to the decode pool of
+     * {@link Coloring}, the highlights are dropped, and {@link #getGeneration()} changes; icon instances created before that must not be
+     * drawn anymore.
+     */
+    public void release() {
+        synchronized (sCacheLock) {
+            if (mReferences <= 0) {
+                return;
+            }
+            mReferences--;
+            if (mReferences == 0) {
+                releaseResources();
+            }
+        }
+    }
+
+    /**
+     * Drops the icons and paints created so far.
+     */
+    private void releaseResources() {
+        synchronized (this) {
+            mIconStates.clear();
+            // pickers check getGeneration() before drawing and reload their icons, so the old instances are never drawn again
+            for (int i = 0; i < mIconBitmaps.size(); i++) {
+                Coloring.get().releaseBitmap(mIconBitmaps.get(i));
+            }
+            mIconBitmaps.clear();
+            mIconBytes = 0;
+            mHighlightBitmaps.clear();
+            mHighlightPaint = null;
+            mFlatHighlightPaint = null;
+            mGeneration++;
+        }
+    }
+
+    /**
+     * @return Generation of the icons, changes every time the icons are dropped
+     */
+    synchronized int getGeneration() {
+        return mGeneration;
+    }
+
+    /**
+     * Creates a new drawable instance of the given control icon. The instance has its own bounds and state, but shares the tinted bitmap
+     * with all other pickers using this style.
+     *
+     * @param control Which control to create the icon for, any of the {@link ActualNumberPicker.Control}s
+     * @return A new icon drawable
+     */
+    @NonNull
+    Drawable newControlIcon(@ActualNumberPicker.Control int control) {
+        Drawable.ConstantState state;
+        synchronized (this) {
+            state = mIconStates.get(control);
+            if (state == null) {
+                state = loadIconState(control);
+            }
+        }
+        return state.newDrawable(mResources);
+    }
+
+    /**
+     * @return The shared highlight paint, created on first use; it must not be modified
+     */
+    @NonNull
+    private Paint getHighlightPaint() {
+        if (mHighlightPaint == null) {
+            mHighlightPaint = new Paint();
+            mHighlightPaint.setAntiAlias(true);
+            mHighlightPaint.setStyle(Paint.Style.FILL);
+            mHighlightPaint.setColor(mKey.highlightColor);
+            mHighlightPaint.setMaskFilter(new BlurMaskFilter(HIGHLIGHT_BLUR_RADIUS, BlurMaskFilter.Blur.NORMAL));
+            mHighlightPaint.setAlpha(100);
+        }
+        return mHighlightPaint;
+    }
+
+    /**
+     * Returns the blurred highlight circle of the given radius, rendered once per style and radius. The bitmap is a square with the circle
+     * in its center and room for the blur around it, so it should be drawn centered on the control.
+     *
+     * @param radius Radius of the circle, in pixels
+     * @return The shared highlight bitmap; it must not be modified
+     */
+    @NonNull
+    synchronized Bitmap getHighlightBitmap(int radius) {
+        Bitmap bitmap = mHighlightBitmaps.get(radius);
+        if (bitmap == null) {
+            int size = 2 * (radius + HIGHLIGHT_BLUR_RADIUS);
+            bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+            new Canvas(bitmap).drawCircle(size / 2f, size / 2f, radius, getHighlightPaint());
+            mHighlightBitmaps.put(radius, bitmap);
+        }
+        return bitmap;
+    }
+
+    /**
+     * @return The shared highlight paint without the blur, created on first use; it must not be modified
+     */
+    @NonNull
+    synchronized Paint getFlatHighlightPaint() {
+        if (mFlatHighlightPaint == null) {
+            mFlatHighlightPaint = new Paint(getHighlightPaint());
+            mFlatHighlightPaint.setMaskFilter(null);
+        }
+        return mFlatHighlightPaint;
+    }
+
+    /**
+     * @return Display density factor, relative to LDPI
+     */
+    public float getDensityFactor() {
+        return mDensityFactor;
+    }
+
+    /**
+     * @return Minimum bar width, in pixels
+     */
+    int getMinBarWidth() {
+        return mMinBarWidth;
+    }
+
+    /**
+     * @return Spacing between bars when the bar count is not set explicitly, in pixels
+     */
+    int getAutoBarSpacing() {
+        return mAutoBarSpacing;
+    }
+
+    /**
+     * @return Minimum picker height, in pixels
+     */
+    int getMinHeight() {
+        return mMinHeight;
+    }
+
+    /**
+     * @return Maximum control size, in pixels
+     */
+    int getControlSize() {
+        return mControlSize;
+    }
+
+    /**
+     * @return How many bytes the tinted icon bitmaps and the highlights created so far take; paid once for all pickers using this style
+     */
+    public synchronized int getBitmapByteCount() {
+        int bytes = mIconBytes;
+        for (int i = 0; i < mHighlightBitmaps.size(); i++) {
+            Bitmap bitmap = mHighlightBitmaps.valueAt(i);
+            bytes += bitmap.getRowBytes() * bitmap.getHeight();
+        }
+        return bytes;
+    }
+
+    /**
+     * @return Color of the normal arrow controls
+     */
+    public int getControlsColor() {
+        return mKey.controlsColor;
+    }
+
+    /**
+     * @return Color of the fast arrow controls
+     */
+    public int getFastControlsColor() {
+        return mKey.fastControlsColor;
+    }
+
+    /**
+     * @return Color of the highlight circles behind the controls
+     */
+    public int getHighlightColor() {
+        return mKey.highlightColor;
+    }
+
+    /**
+     * Identifies a unique style configuration.
+     */
+    private static final class Key {
+
+        final int controlsColor;
+        final int fastControlsColor;
+        final int highlightColor;
+        final int densityDpi;
+
+        Key(int controlsColor, int fastControlsColor, int highlightColor, int densityDpi) {
+            this.controlsColor = controlsColor;
+            this.fastControlsColor = fastControlsColor;
+            this.highlightColor = highlightColor;
+            this.densityDpi = densityDpi;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return controlsColor == other.controlsColor && fastControlsColor == other.fastControlsColor
+                    && highlightColor == other.highlightColor && densityDpi == other.densityDpi;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = controlsColor;
+            result = 31 * result + fastControlsColor;
+            result = 31 * result + highlightColor;
+            result = 31 * result + densityDpi;
+            return result;
+        }
+    }
+
+}
@@ -0,0 +1,208 @@
+package me.angrybyte.numberpicker.view;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Trace;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Named trace sections around the picker's measure, layout, draw, touch and dispatch work. Tracing is disabled by default and costs only
+ * a field read per section; enable it with {@link #setTracer(Tracer)}, using {@link #PLATFORM} on the device (sections show up in
+ * systrace and the profilers) or a {@link Recorder} in JVM tests.<br>
+ * <b>Note</b>: Sections are recorded on the main thread only.
+ */
+public final class PickerTrace {
+
+    public static final String MEASURE = "ANP#onMeasure";
+    public static final String SIZE_CHANGED = "ANP#onSizeChanged";
+    public static final String TEXT_SIZE = "ANP#updateTextSize";
+    public static final String CONTROL_POSITIONS = "ANP#calculateControlPositions";
+    public static final String DRAW_BARS = "ANP#drawBars";
+    public static final String DRAW_CONTROLS = "ANP#drawControls";
+    public static final String TOUCH = "ANP#onTouchEvent";
+    public static final String DISPATCH = "ANP#dispatchValueChange";
+
+    /**
+     * Receives the trace sections. Sections are properly nested and always ended on the thread that began them.
+     */
+    public interface Tracer {
+
+        /**
+         * Begins a section, see the constants in {@link PickerTrace} for the possible names.
+         *
+         * @param name Which section is beginning
+         */
+        void beginSection(@NonNull String name);
+
+        /**
+         * Ends the most recently begun section.
+         */
+        void endSection();
+
+    }
+
+    /**
+     * Forwards sections to {@link Trace}; does nothing before Jelly Bean MR2, where platform tracing is not available.
+     */
+    public static final Tracer PLATFORM = new Tracer() {
+        @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+        @Override
+        public void beginSection(@NonNull String name) {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+                Trace.beginSection(name);
+            }
+        }
+
+        @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+        @Override
+        public void endSection() {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+                Trace.endSection();
+            }
+        }
+    };
+
+    private static volatile Tracer sTracer;
+
+    private PickerTrace() {}
+
+    /**
+     * Sets the tracer for all pickers.
+     *
+     * @param tracer Which tracer to use, or {@code null} to disable tracing
+     */
+    public static void setTracer(@Nullable Tracer tracer) {
+        sTracer = tracer;
+    }
+
+    /**
+     * @return The current tracer, or {@code null} if tracing is disabled
+     */
+    @Nullable
+    public static Tracer getTracer() {
+        return sTracer;
+    }
+
+    static void begin(String name) {
+        Tracer tracer = sTracer;
+        if (tracer != null) {
+            tracer.beginSection(name);
+        }
+    }
+
+    static void end() {
+        Tracer tracer = sTracer;
+        if (tracer != null) {
+            tracer.endSection();
+        }
+    }
+
+    /**
+     * An in-memory tracer, keeps every completed section with its duration. Meant for tests and debugging, not for long sessions; call
+     * {@link #clear()} to drop the recorded sections.
+     */
+    public static final class Recorder implements Tracer {
+
+        private final List<Section> mSections = new ArrayList<>();
+        private final List<Section> mOpen = new ArrayList<>();
+
+        @Override
+        public synchronized void beginSection(@NonNull String name) {
+            mOpen.add(new Section(name, mOpen.size(), System.nanoTime()));
+        }
+
+        @Override
+        public synchronized void endSection() {
+            if (mOpen.isEmpty()) {
+                return;
+            }
+            Section section = mOpen.remove(mOpen.size() - 1);
+            section.mDurationNanos = System.nanoTime() - section.mStartNanos;
+            mSections.add(section);
+        }
+
+        /**
+         * @return A copy of all completed sections, in the order they were ended
+         */
+        @NonNull
+        public synchronized List<Section> getSections() {
+            return new ArrayList<>(mSections);
+        }
+
+        /**
+         * @param name Which section to count
+         * @return How many times the given section was completed
+         */
+        public synchronized int count(@NonNull String name) {
+            int count = 0;
+            for (Section section : mSections) {
+                if (section.mName.equals(name)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * @param name Which section to sum up
+         * @return Total time spent in the given section, in nanoseconds
+         */
+        public synchronized long totalNanos(@NonNull String name) {
+            long total = 0;
+            for (Section section : mSections) {
+                if (section.mName.equals(name)) {
+                    total += section.mDurationNanos;
+                }
+            }
+            return total;
+        }
+
+        public synchronized void clear() {
+            mSections.clear();
+            mOpen.clear();
+        }
+
+    }
+
+    /**
+     * One completed section, recorded by the {@link Recorder}.
+     */
+    public static final class Section {
+
+        private final String mName;
+        private final int mDepth;
+        private final long mStartNanos;
+        private long mDurationNanos;
+
+        private Section(String name, int depth, long startNanos) {
+            mName = name;
+            mDepth = depth;
+            mStartNanos = startNanos;
+        }
+
+        public String getName() {
+            return mName;
+        }
+
+        /**
+         * @return How many sections were open when this one began, {@code 0} for top-level sections
+         */
+        public int getDepth() {
+            return mDepth;
+        }
+
+        public long getStartNanos() {
+            return mStartNanos;
+        }
+
+        public long getDurationNanos() {
+            return mDurationNanos;
+        }
+
+    }
+
+}
@@ -0,0 +1,103 @@
+
+package me.angrybyte.numberpicker.view;
+
+/**
+ * Watches recent frame times of a picker and decides on its rendering quality. When frames keep exceeding the frame budget, quality is
+ * stepped down one level at a time (see {@link ActualNumberPicker.Quality}); once frames are back within the budget for a while, quality
+ * is stepped up again.
+ */
+final class QualityGovernor {
+
+    private static final long DEFAULT_FRAME_BUDGET_NANOS = 16666667L; // 60 fps
+    private static final long IDLE_GAP_NANOS = 250000000L; // longer gaps are not animation frames
+    private static final float JANK_FACTOR = 1.5f;
+    private static final float SMOOTH_FACTOR = 0.9f;
+    private static final float AVERAGE_WEIGHT = 0.2f;
+    private static final int FRAMES_BEFORE_DOWNGRADE = 10;
+    private static final int FRAMES_BEFORE_UPGRADE = 120;
+
+    private long mFrameBudgetNanos = DEFAULT_FRAME_BUDGET_NANOS;
+    private long mLastFrameNanos = 0;
+    private float mAverageFrameNanos = 0;
+    private int mFramesSinceChange = 0;
+    @ActualNumberPicker.Quality
+    private int mLevel = ActualNumberPicker.QUALITY_FULL;
+
+    /**
+     * Updates the frame budget, e.g. when the display refresh rate is known.
+     *
+     * @param refreshRate Display refresh rate, in frames per second
+     */
+    void setRefreshRate(float refreshRate) {
+        if (refreshRate > 0) {
+            mFrameBudgetNanos = (long) (1000000000L / refreshRate);
+        }
+    }
+
+    /**
+     * @return Current quality level, any of the {@link ActualNumberPicker.Quality} levels
+     */
+    @ActualNumberPicker.Quality
+    int getLevel() {
+        return mLevel;
+    }
+
+    /**
+     * Records a new animation frame and re-evaluates the quality level.
+     *
+     * @param frameTimeNanos When the frame started, e.g. the vsync time from a {@code Choreographer.FrameCallback}
+     * @return {@code True} if the quality level changed
+     */
+    boolean onFrame(long frameTimeNanos) {
+        long interval = frameTimeNanos - mLastFrameNanos;
+        mLastFrameNanos = frameTimeNanos;
+        if (interval <= 0 || interval > IDLE_GAP_NANOS) {
+            // first frame after being idle, nothing to measure
+            return false;
+        }
+
+        if (mAverageFrameNanos == 0) {
+            mAverageFrameNanos = interval;
+        } else {
+            mAverageFrameNanos += (interval - mAverageFrameNanos) * AVERAGE_WEIGHT;
+        }
+        mFramesSinceChange++;
+
+        if (mAverageFrameNanos > mFrameBudgetNanos * JANK_FACTOR && mFramesSinceChange >= FRAMES_BEFORE_DOWNGRADE
+                && mLevel < ActualNumberPicker.QUALITY_NO_BLUR) {
+            return changeLevel(mLevel + 1);
+        } else if (mAverageFrameNanos < mFrameBudgetNanos * SMOOTH_FACTOR && mFramesSinceChange >= FRAMES_BEFORE_UPGRADE
+                && mLevel > ActualNumberPicker.QUALITY_FULL) {
+            return changeLevel(mLevel - 1);
+        }
+        return false;
+    }
+
+    /**
+     * Marks the end of a continuous animation. The gap until the next animation is not a frame, so it is not measured; the averages and
+     * the quality level are kept.
+     */
+    void onAnimationEnd() {
+        mLastFrameNanos = 0;
+    }
+
+    /**
+     * Goes back to full quality and forgets all measurements.
+     */
+    void reset() {
+        mLastFrameNanos = 0;
+        mAverageFrameNanos = 0;
+        mFramesSinceChange = 0;
+        mLevel = ActualNumberPicker.QUALITY_FULL;
+    }
+
+    private boolean changeLevel(int level) {
+        // noinspection WrongConstant
+        mLevel = level;
+        mFramesSinceChange = 0;
+        // start measuring again, with the new quality
+        mAverageFrameNanos = 0;
+        return true;
+    }
+
+}
@@ -0,0 +1,105 @@
+
+package me.angrybyte.numberpicker.view;
+
+/**
+ * Precomputed mappings of a {@link ValueScale} for one picker, so that per-event mapping is a constant-time lookup: one table maps every
+ * pixel to a value for dragging, and a small one maps the fast control steps. Values are mapped back to positions by scanning the small
+ * table, which is bounded. The tables are rebuilt only when the scale, the value range or the view width changes.
+ */
+final class ScaleTable {
+
+    /**
+     * How many fast control steps fit along the picker (each is 10% of the picker).
+     */
+    private static final int FAST_STEPS = 10;
+
+    private ValueScale mScale;
+    private int mWidth = -1;
+    private int mMinValue;
+    private int mMaxValue;
+
+    // value for each pixel along the picker, [0, width]
+    private long[] mPixelValues = new long[0];
+    // value at each tenth of the picker, [0, 10]
+    private long[] mFastStepValues = new long[FAST_STEPS + 1];
+
+    /**
+     * Rebuilds the tables if any of the inputs changed.
+     */
+    void update(ValueScale scale, int width, int minValue, int maxValue) {
+        if (scale == mScale && width == mWidth && minValue == mMinValue && maxValue == mMaxValue) {
+            return;
+        }
+
+        mScale = scale;
+        mWidth = width;
+        mMinValue = minValue;
+        mMaxValue = maxValue;
+
+        if (mPixelValues.length != width + 1) {
+            mPixelValues = new long[width + 1];
+        }
+        for (int x = 0; x <= width; x++) {
+            mPixelValues[x] = toValue((double) x / width);
+        }
+        for (int i = 0; i <= FAST_STEPS; i++) {
+            mFastStepValues[i] = toValue((double) i / FAST_STEPS);
+        }
+    }
+
+    private long toValue(double fraction) {
+        long value = Math.round(mScale.toValue(fraction, mMinValue, mMaxValue));
+        return Math.max(mMinValue, Math.min(mMaxValue, value));
+    }
+
+    /**
+     * Maps the touch position to a value, interpolating between the two nearest pixels.
+     *
+     * @param x Where is the finger on the X-axis
+     * @return The value at that position, inside the range
+     */
+    int valueAt(float x) {
+        if (x <= 0) {
+            return (int) mPixelValues[0];
+        } else if (x >= mWidth) {
+            return (int) mPixelValues[mWidth];
+        }
+
+        int pixel = (int) x;
+        long from = mPixelValues[pixel];
+        long to = mPixelValues[pixel + 1];
+        return (int) (from + (long) Math.floor((to - from) * (x - pixel)));
+    }
+
+    /**
+     * Moves the value by the given number of fast steps (each is 10% of the picker along the scale).
+     *
+     * @param value Where to start from
+     * @param steps How many fast steps to go, negative to go back
+     * @return The new value, inside the range
+     */
+    int fastStep(int value, int steps) {
+        // find the fast step segment of the current value; table is monotonic, so this is a short scan
+        int segment = 0;
+        while (segment < FAST_STEPS && mFastStepValues[segment + 1] <= value) {
+            segment++;
+        }
+
+        long from = mFastStepValues[segment];
+        long to = segment < FAST_STEPS ? mFastStepValues[segment + 1] : from;
+        double withinSegment = to > from ? (double) (value - from) / (to - from) : 0;
+
+        // stepping past either end goes to that end, not to the same spot within the first or last segment
+        int targetSegment = segment + steps;
+        if (targetSegment < 0) {
+            return mMinValue;
+        } else if (targetSegment >= FAST_STEPS) {
+            return mMaxValue;
+        }
+        long targetFrom = mFastStepValues[targetSegment];
+        long targetTo = targetSegment < FAST_STEPS ? mFastStepValues[targetSegment + 1] : targetFrom;
+        long target = targetFrom + (long) Math.floor((targetTo - targetFrom) * withinSegment);
+        return (int) Math.max(mMinValue, Math.min(mMaxValue, target));
+    }
+
+}
@@ -0,0 +1,102 @@
+package me.angrybyte.numberpicker.view;
+
+/**
+ * Extrapolates the horizontal touch position to the time the next frame is presented, from the most recent touch samples. The velocity
+ * is a least-squares fit over a short window, so a single noisy sample does not throw the prediction off. Predictions are only used for
+ * drawing; the picker state always follows the real samples.
+ */
+final class TouchPredictor {
+
+    private static final int MAX_SAMPLES = 5;
+    private static final long SAMPLE_WINDOW_MILLIS = 50; // older samples don't describe the current movement
+    private static final long MAX_HORIZON_MILLIS = 32; // never look further than two frames ahead
+    private static final long DEFAULT_FRAME_MILLIS = 16; // 60 fps
+
+    private final float[] mPositions = new float[MAX_SAMPLES];
+    private final long[] mTimes = new long[MAX_SAMPLES];
+    private int mCount = 0;
+    private int mNewest = -1;
+    private long mFrameMillis = DEFAULT_FRAME_MILLIS;
+
+    /**
+     * Updates the expected frame interval, e.g. when the display refresh rate is known.
+     *
+     * @param refreshRate Display refresh rate, in frames per second
+     */
+    void setRefreshRate(float refreshRate) {
+        if (refreshRate > 0) {
+            mFrameMillis = Math.max(1, (long) (1000f / refreshRate));
+        }
+    }
+
+    /**
+     * Records a new touch sample. Samples must be added in the order of their time.
+     *
+     * @param x Where is the finger on the X-axis
+     * @param timeMillis When the sample was taken, see {@link android.view.MotionEvent#getEventTime()}
+     */
+    void addSample(float x, long timeMillis) {
+        mNewest = (mNewest + 1) % MAX_SAMPLES;
+        mPositions[mNewest] = x;
+        mTimes[mNewest] = timeMillis;
+        mCount = Math.min(mCount + 1, MAX_SAMPLES);
+    }
+
+    /**
+     * Forgets all samples, e.g. when the gesture ends.
+     */
+    void reset() {
+        mCount = 0;
+        mNewest = -1;
+    }
+
+    /**
+     * @return {@code True} if there is at least one sample to predict from
+     */
+    boolean hasSamples() {
+        return mCount > 0;
+    }
+
+    /**
+     * Predicts where the finger will be when the next frame is presented.
+     *
+     * @param nowMillis Current time, in the same time base as the samples (uptime)
+     * @return Predicted position on the X-axis; the newest real position if there is not enough data to predict
+     */
+    float predict(long nowMillis) {
+        float newestX = mPositions[mNewest];
+        long newestTime = mTimes[mNewest];
+        if (nowMillis - newestTime > SAMPLE_WINDOW_MILLIS) {
+            // finger is resting, nothing to extrapolate
+            return newestX;
+        }
+
+        // least-squares slope over the samples inside the window, times relative to the newest sample
+        int used = 0;
+        float sumT = 0, sumX = 0, sumTT = 0, sumTX = 0;
+        for (int i = 0; i < mCount; i++) {
+            int index = (mNewest - i + MAX_SAMPLES) % MAX_SAMPLES;
+            long age = newestTime - mTimes[index];
+            if (age > SAMPLE_WINDOW_MILLIS) {
+                break;
+            }
+            float t = -age;
+            float x = mPositions[index];
+            sumT += t;
+            sumX += x;
+            sumTT += t * t;
+            sumTX += t * x;
+            used++;
+        }
+
+        float denominator = used * sumTT - sumT * sumT;
+        if (used < 2 || denominator == 0) {
+            return newestX;
+        }
+        float velocity = (used * sumTX - sumT * sumX) / denominator; // pixels per millisecond
+
+        long horizon = Math.max(0, Math.min(MAX_HORIZON_MILLIS, nowMillis + mFrameMillis - newestTime));
+        return newestX + velocity * horizon;
+    }
+
+}
@@ -0,0 +1,95 @@
+
+package me.angrybyte.numberpicker.view;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Maps positions along the picker, i.e. fractions in the [{@code 0}, {@code 1}] range, to picker values. Used for drag mapping and for the
+ * fast control steps. The picker does not call this per touch event; mappings are precomputed into tables whenever the range or the view
+ * width changes.
+ */
+public abstract class ValueScale {
+
+    /**
+     * Values are spread evenly along the picker (the default).
+     */
+    public static final ValueScale LINEAR = new ValueScale() {
+        @Override
+        public double toValue(double fraction, int minValue, int maxValue) {
+            return minValue + fraction * ((double) maxValue - minValue);
+        }
+    };
+
+    /**
+     * Low values get more space than high values, useful for huge ranges (e.g. 1 - 1,000,000) where precision matters at the low end. Works
+     * for any range, the scale is relative to the minimum value.
+     */
+    public static final ValueScale LOGARITHMIC = new ValueScale() {
+        @Override
+        public double toValue(double fraction, int minValue, int maxValue) {
+            return minValue + Math.expm1(fraction * Math.log1p((double) maxValue - minValue));
+        }
+    };
+
+    /**
+     * Creates a piecewise linear scale. For example, positions {@code [0, 0.5, 1]} with value fractions {@code [0, 0.1, 1]} give the first
+     * half of the picker to the lowest 10% of the range.
+     *
+     * @param positions Fractions along the picker, must start at {@code 0}, end at {@code 1} and be strictly increasing
+     * @param valueFractions Fractions of the value range at each position, must start at {@code 0}, end at {@code 1} and be strictly
+     *            increasing
+     * @return A new piecewise scale
+     */
+    @NonNull
+    public static ValueScale piecewise(@NonNull float[] positions, @NonNull float[] valueFractions) {
+        if (positions.length < 2 || positions.length != valueFractions.length) {
+            throw new RuntimeException("Piecewise scale needs at least two points, and the same number of positions and values");
+        }
+        if (positions[0] != 0f || positions[positions.length - 1] != 1f || valueFractions[0] != 0f
+                || valueFractions[valueFractions.length - 1] != 1f) {
+            throw new RuntimeException("Piecewise scale must start at 0 and end at 1");
+        }
+        for (int i = 1; i < positions.length; i++) {
+            if (positions[i] <= positions[i - 1] || valueFractions[i] <= valueFractions[i - 1]) {
+                throw new RuntimeException("Piecewise scale points must be strictly increasing");
+            }
+        }
+
+        final float[] from = positions.clone();
+        final float[] to = valueFractions.clone();
+        return new ValueScale() {
+            @Override
+            public double toValue(double fraction, int minValue, int maxValue) {
+                return minValue + interpolate(from, to, fraction) * ((double) maxValue - minValue);
+            }
+        };
+    }
+
+    /**
+     * Piecewise linear interpolation, {@code x} is clamped into the [{@code 0}, {@code 1}] range.
+     */
+    private static double interpolate(float[] xs, float[] ys, double x) {
+        if (x <= 0) {
+            return 0;
+        } else if (x >= 1) {
+            return 1;
+        }
+
+        int i = 1;
+        while (xs[i] < x) {
+            i++;
+        }
+        return ys[i - 1] + (x - xs[i - 1]) / (xs[i] - xs[i - 1]) * (ys[i] - ys[i - 1]);
+    }
+
+    /**
+     * Converts a position along the picker to a value.
+     *
+     * @param fraction Position along the picker, between {@code 0} and {@code 1}
+     * @param minValue Minimum value of the picker
+     * @param maxValue Maximum value of the picker
+     * @return The (not yet rounded) value at the given position
+     */
+    public abstract double toValue(double fraction, int minValue, int maxValue);
+
+}
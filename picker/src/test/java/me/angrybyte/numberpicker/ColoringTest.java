@@ -0,0 +1,270 @@
+
+package me.angrybyte.numberpicker;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JVM tests for the framework-free parts of {@link Coloring}.
+ */
+public class ColoringTest {
+
+    private static final int BLACK = 0xFF000000;
+    private static final int GRAY = 0xFF888888;
+    private static final int WHITE = 0xFFFFFFFF;
+    private static final int MID_GRAY = 0xFF808080;
+    private static final int DARK_GRAY = 0xFF202020;
+    private static final int YELLOW = 0xFFFFFF00;
+    private static final int BLUE = 0xFF0000FF;
+    private static final float DELTA = 0.0005f;
+
+    private Coloring mColoring;
+
+    @Before
+    public void setUp() {
+        mColoring = new Coloring();
+    }
+
+    @Test
+    public void decodeColor_longForms() {
+        assertEquals(0x80FF3040, mColoring.decodeColor("#80FF3040"));
+        assertEquals(0x80FF3040, mColoring.decodeColor("0x80ff3040"));
+        assertEquals(0x80FF3040, mColoring.decodeColor("0X80Ff3040"));
+        assertEquals(0xFFFF3040, mColoring.decodeColor("#FF3040"));
+        assertEquals(0xFFFF3040, mColoring.decodeColor("0xFF3040"));
+        assertEquals(0xFFFF3040, mColoring.decodeColor("FF3040"));
+    }
+
+    @Test
+    public void decodeColor_shortForms() {
+        assertEquals(0xFFFF3300, mColoring.decodeColor("#F30"));
+        assertEquals(0x88FF3300, mColoring.decodeColor("#8F30"));
+        assertEquals(0x00000000, mColoring.decodeColor("#0000"));
+    }
+
+    @Test
+    public void decodeColor_surroundingWhitespace() {
+        assertEquals(0xFF102030, mColoring.decodeColor("  #102030\t"));
+        assertEquals(0xFF102030, mColoring.decodeColor("\n0x102030 "));
+    }
+
+    @Test
+    public void decodeColor_emptyIsBlack() {
+        assertEquals(BLACK, mColoring.decodeColor(null));
+        assertEquals(BLACK, mColoring.decodeColor(""));
+        assertEquals(BLACK, mColoring.decodeColor("   "));
+    }
+
+    @Test
+    public void decodeColor_invalidIsGray() {
+        assertEquals(GRAY, mColoring.decodeColor("#"));
+        assertEquals(GRAY, mColoring.decodeColor("#12345"));
+        assertEquals(GRAY, mColoring.decodeColor("#123456789"));
+        assertEquals(GRAY, mColoring.decodeColor("#12G456"));
+        assertEquals(GRAY, mColoring.decodeColor("0x"));
+    }
+
+    @Test
+    public void decodeColor_sameResultsWithCache() {
+        String[] strings = new String[] {
+                "#80FF3040", "#F30", "  #102030 ", "", "#12G456", "0x102030"
+        };
+        int[] uncached = mColoring.decodeColors(strings, new int[strings.length]);
+
+        mColoring.setDecodeCacheSize(2);
+        for (int round = 0; round < 3; round++) {
+            int[] cached = mColoring.decodeColors(strings, new int[strings.length]);
+            for (int i = 0; i < strings.length; i++) {
+                assertEquals(strings[i], uncached[i], cached[i]);
+            }
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void decodeColors_destinationTooSmall() {
+        mColoring.decodeColors(new String[] {
+                "#FFF", "#000"
+        }, new int[1]);
+    }
+
+    @Test
+    public void decodeCache_evictsLeastRecentlyUsed() {
+        Coloring.DecodeCache cache = new Coloring.DecodeCache(2);
+        cache.put("#111", 1);
+        cache.put("#222", 2);
+        assertTrue(cache.find("#111") >= 0);
+
+        cache.put("#333", 3);
+        assertEquals(2, cache.size());
+        assertEquals(-1, cache.find("#222"));
+        assertEquals(1, cache.colorAt(cache.find("#111")));
+        assertEquals(3, cache.colorAt(cache.find("#333")));
+    }
+
+    @Test
+    public void decodeCache_collidingKeysSurviveRemoval() {
+        // all four strings have the same hash code, so they share one probe sequence
+        String[] keys = new String[] {
+                "AaAa", "AaBB", "BBAa", "BBBB"
+        };
+        Coloring.DecodeCache cache = new Coloring.DecodeCache(3);
+        for (int i = 0; i < 3; i++) {
+            cache.put(keys[i], i);
+        }
+
+        // evicts the first key, from the start of the probe sequence
+        cache.put(keys[3], 3);
+        assertEquals(-1, cache.find(keys[0]));
+        for (int i = 1; i < keys.length; i++) {
+            assertEquals(i, cache.colorAt(cache.find(keys[i])));
+        }
+    }
+
+    @Test
+    public void decodeCache_shrinkingKeepsMostRecent() {
+        Coloring.DecodeCache previous = new Coloring.DecodeCache(4);
+        previous.put("#111", 0xFF111111);
+        previous.put("#222", 0xFF222222);
+        previous.put("#333", 0xFF333333);
+        previous.find("#111");
+
+        // "#222" is the least recently used one
+        Coloring.DecodeCache resized = new Coloring.DecodeCache(2);
+        resized.putAll(previous);
+        assertEquals(2, resized.size());
+        assertEquals(-1, resized.find("#222"));
+        assertEquals(0xFF111111, resized.colorAt(resized.find("#111")));
+        assertEquals(0xFF333333, resized.colorAt(resized.find("#333")));
+    }
+
+    @Test
+    public void setDecodeCacheSize_resizeAndDisable() {
+        mColoring.setDecodeCacheSize(4);
+        mColoring.decodeColor("#111");
+        mColoring.setDecodeCacheSize(2);
+        assertEquals(0xFF111111, mColoring.decodeColor("#111"));
+        mColoring.setDecodeCacheSize(0);
+        assertEquals(0xFF111111, mColoring.decodeColor("#111"));
+    }
+
+    @Test
+    public void darkenColors_clampsAndKeepsAlpha() {
+        int[] colors = new int[] {
+                0x80FF3010, 0xFF000000, 0x00102030
+        };
+        mColoring.darkenColors(colors, colors, 0x20);
+        assertEquals(0x80DF1000, colors[0]);
+        assertEquals(0xFF000000, colors[1]);
+        assertEquals(0x00000010, colors[2]);
+    }
+
+    @Test
+    public void lightenColors_clampsAndKeepsAlpha() {
+        int[] colors = new int[] {
+                0x80F030E0, 0xFFFFFFFF, 0x00102030
+        };
+        int[] lightened = new int[4];
+        mColoring.lightenColors(colors, lightened, 0x20);
+        assertEquals(0x80FF50FF, lightened[0]);
+        assertEquals(0xFFFFFFFF, lightened[1]);
+        assertEquals(0x00304050, lightened[2]);
+        assertEquals(0, lightened[3]);
+    }
+
+    @Test
+    public void alphaBlendWithWhite_bulk() {
+        int[] colors = new int[] {
+                0xFF102030, 0x00102030, 0x80000000, 0x80FF0000
+        };
+        mColoring.alphaBlendWithWhite(colors, colors);
+        assertEquals(0xFF102030, colors[0]);
+        assertEquals(0xFFFFFFFF, colors[1]);
+        assertEquals(0xFF7F7F7F, colors[2]);
+        assertEquals(0xFFFF7F7F, colors[3]);
+    }
+
+    @Test
+    public void getLuminance_wcagValues() {
+        assertEquals(0f, mColoring.getLuminance(BLACK), DELTA);
+        assertEquals(1f, mColoring.getLuminance(WHITE), DELTA);
+        assertEquals(0.2159f, mColoring.getLuminance(MID_GRAY), DELTA);
+        assertEquals(0.0722f, mColoring.getLuminance(BLUE), DELTA);
+        // alpha is ignored
+        assertEquals(mColoring.getLuminance(MID_GRAY), mColoring.getLuminance(0x00808080), 0f);
+    }
+
+    @Test
+    public void getLuminances_matchesSingle() {
+        int[] colors = new int[] {
+                BLACK, WHITE, MID_GRAY, YELLOW, 0x80123456
+        };
+        float[] luminances = new float[colors.length];
+        mColoring.getLuminances(colors, luminances);
+        for (int i = 0; i < colors.length; i++) {
+            assertEquals(mColoring.getLuminance(colors[i]), luminances[i], 0f);
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void getLuminances_destinationTooSmall() {
+        mColoring.getLuminances(new int[2], new float[1]);
+    }
+
+    @Test
+    public void getContrastRatio_range() {
+        assertEquals(21f, mColoring.getContrastRatio(BLACK, WHITE), 0.01f);
+        assertEquals(21f, mColoring.getContrastRatio(WHITE, BLACK), 0.01f);
+        assertEquals(1f, mColoring.getContrastRatio(MID_GRAY, MID_GRAY), 0f);
+        assertEquals(3.95f, mColoring.getContrastRatio(MID_GRAY, WHITE), 0.01f);
+        assertEquals(5.32f, mColoring.getContrastRatio(MID_GRAY, BLACK), 0.01f);
+    }
+
+    @Test
+    public void getReadableColor_fallsBackToContrastColor() {
+        assertEquals(YELLOW, mColoring.getReadableColor(YELLOW, BLACK, 4.5f));
+        assertEquals(MID_GRAY, mColoring.getReadableColor(MID_GRAY, WHITE, 3f));
+        assertEquals(BLACK, mColoring.getReadableColor(MID_GRAY, WHITE, 4.5f));
+        assertEquals(WHITE, mColoring.getReadableColor(DARK_GRAY, BLUE, 4.5f));
+    }
+
+    @Test
+    public void getContrastColors_matchesSingle() {
+        int[] colors = new int[] {
+                WHITE, BLACK, MID_GRAY, BLUE
+        };
+        mColoring.getContrastColors(colors, colors);
+        assertEquals(BLACK, colors[0]);
+        assertEquals(WHITE, colors[1]);
+        assertEquals(BLACK, colors[2]);
+        assertEquals(WHITE, colors[3]);
+        assertEquals(WHITE, mColoring.getContrastColor(BLUE));
+    }
+
+    @Test
+    public void getReadableColors_picksHighestContrast() {
+        int[] colors = new int[] {
+                WHITE, BLACK, 0xFF000080
+        };
+        int[] candidates = new int[] {
+                MID_GRAY, DARK_GRAY, YELLOW
+        };
+        mColoring.getReadableColors(colors, candidates, colors);
+        assertEquals(DARK_GRAY, colors[0]);
+        assertEquals(YELLOW, colors[1]);
+        assertEquals(YELLOW, colors[2]);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void getReadableColors_noCandidates() {
+        mColoring.getReadableColors(new int[1], new int[0], new int[1]);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void bulk_destinationTooSmall() {
+        mColoring.darkenColors(new int[2], new int[1], 10);
+    }
+
+}
@@ -0,0 +1,108 @@
+
+package me.angrybyte.numberpicker.view;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * JVM tests for {@link FixedPoint}.
+ */
+public class FixedPointTest {
+
+    @Test
+    public void format_decimals() {
+        assertEquals("1.05", format(105, 2));
+        assertEquals("0.05", format(5, 2));
+        assertEquals("0.00", format(0, 2));
+        assertEquals("10.0", format(100, 1));
+    }
+
+    @Test
+    public void format_negatives() {
+        assertEquals("-1.05", format(-105, 2));
+        assertEquals("-0.05", format(-5, 2));
+        assertEquals("-7", format(-7, 0));
+    }
+
+    @Test
+    public void format_scaleZero() {
+        assertEquals("0", format(0, 0));
+        assertEquals("12345", format(12345, 0));
+    }
+
+    @Test
+    public void format_extremes() {
+        assertEquals("9223372036854775807", format(Long.MAX_VALUE, 0));
+        assertEquals("-9223372036854775808", format(Long.MIN_VALUE, 0));
+        assertEquals("-9.223372036854775808", format(Long.MIN_VALUE, FixedPoint.MAX_SCALE));
+        assertEquals("-0.000000000000000001", format(-1, FixedPoint.MAX_SCALE));
+    }
+
+    @Test
+    public void format_matchesBigDecimalWithinMaxLength() {
+        long[] values = new long[] {
+                Long.MIN_VALUE, Long.MAX_VALUE, -1, 0, 1, 1234567890123L
+        };
+        for (long value : values) {
+            for (int scale = 0; scale <= FixedPoint.MAX_SCALE; scale++) {
+                // format() fails if the buffer is too small
+                assertEquals(BigDecimal.valueOf(value, scale).toPlainString(), format(value, scale));
+            }
+        }
+    }
+
+    @Test
+    public void snap_roundsToNearestStep() {
+        // 0 to 10 with a 0.05 step, scaled by 100
+        assertEquals(0, FixedPoint.snap(0, 0, 5, 200));
+        assertEquals(0, FixedPoint.snap(2, 0, 5, 200));
+        assertEquals(1, FixedPoint.snap(3, 0, 5, 200));
+        assertEquals(100, FixedPoint.snap(500, 0, 5, 200));
+        assertEquals(200, FixedPoint.snap(1000, 0, 5, 200));
+    }
+
+    @Test
+    public void snap_roundsHalfUp() {
+        assertEquals(1, FixedPoint.snap(2, 0, 4, 10));
+        assertEquals(0, FixedPoint.snap(1, 0, 4, 10));
+        assertEquals(3, FixedPoint.snap(3, 0, 1, 10));
+    }
+
+    @Test
+    public void snap_negativeRange() {
+        assertEquals(0, FixedPoint.snap(-1000, -500, 25, 40));
+        assertEquals(20, FixedPoint.snap(0, -500, 25, 40));
+        assertEquals(19, FixedPoint.snap(-30, -500, 25, 40));
+        assertEquals(40, FixedPoint.snap(1000, -500, 25, 40));
+    }
+
+    @Test
+    public void snap_extremes() {
+        assertEquals(0, FixedPoint.snap(Long.MIN_VALUE, 0, 1, 10));
+        assertEquals(10, FixedPoint.snap(Long.MAX_VALUE, 0, 1, 10));
+        // the difference doesn't fit into a long
+        assertEquals(10, FixedPoint.snap(Long.MAX_VALUE, Long.MIN_VALUE, 1, 10));
+        assertEquals(Integer.MAX_VALUE, FixedPoint.snap(Long.MAX_VALUE, -1, Long.MAX_VALUE / Integer.MAX_VALUE, Integer.MAX_VALUE));
+        assertEquals(1, FixedPoint.snap(Long.MAX_VALUE, 0, Long.MAX_VALUE, 1));
+    }
+
+    @Test
+    public void valueAt_isInverseOfSnap() {
+        for (int index = 0; index <= 40; index++) {
+            long value = FixedPoint.valueAt(index, -500, 25);
+            assertEquals(-500 + index * 25, value);
+            assertEquals(index, FixedPoint.snap(value, -500, 25, 40));
+        }
+        assertEquals(Long.MAX_VALUE, FixedPoint.valueAt(1, 0, Long.MAX_VALUE));
+        assertEquals(Long.MIN_VALUE + 2L * Integer.MAX_VALUE, FixedPoint.valueAt(Integer.MAX_VALUE, Long.MIN_VALUE, 2));
+    }
+
+    private static String format(long value, int scale) {
+        char[] buffer = new char[FixedPoint.MAX_LENGTH];
+        return new String(buffer, 0, FixedPoint.format(value, scale, buffer));
+    }
+
+}
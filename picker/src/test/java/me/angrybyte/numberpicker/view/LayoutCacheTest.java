@@ -0,0 +1,63 @@
+
+package me.angrybyte.numberpicker.view;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * JVM tests for {@link LayoutCache}.
+ */
+public class LayoutCacheTest {
+
+    @Test
+    public void find_matchesAllInputs() {
+        LayoutCache cache = new LayoutCache(2);
+        LayoutCache.Entry entry = cache.obtain(300, 50, 24, 1);
+        assertEquals(2 * LayoutCache.RECT_SIZE, entry.bounds.length);
+
+        assertSame(entry, cache.find(300, 50, 24, 1));
+        assertNull(cache.find(301, 50, 24, 1));
+        assertNull(cache.find(300, 51, 24, 1));
+        assertNull(cache.find(300, 50, 25, 1));
+        assertNull(cache.find(300, 50, 24, 2));
+    }
+
+    @Test
+    public void obtain_recyclesLeastRecentlyUsed() {
+        LayoutCache cache = new LayoutCache(1, 2);
+        LayoutCache.Entry portrait = cache.obtain(300, 50, 24, 0);
+        LayoutCache.Entry landscape = cache.obtain(500, 50, 24, 0);
+        assertSame(portrait, cache.find(300, 50, 24, 0));
+
+        // landscape is the least recently used one now
+        LayoutCache.Entry other = cache.obtain(400, 50, 24, 0);
+        assertSame(landscape, other);
+        assertNull(cache.find(500, 50, 24, 0));
+        assertNotNull(cache.find(300, 50, 24, 0));
+        assertNotNull(cache.find(400, 50, 24, 0));
+    }
+
+    @Test
+    public void obtain_takesUnusedEntriesFirst() {
+        LayoutCache cache = new LayoutCache(1, 3);
+        cache.obtain(1, 1, 1, 0);
+        cache.obtain(2, 2, 2, 0);
+        cache.obtain(3, 3, 3, 0);
+        assertNotNull(cache.find(1, 1, 1, 0));
+        assertNotNull(cache.find(2, 2, 2, 0));
+        assertNotNull(cache.find(3, 3, 3, 0));
+    }
+
+    @Test
+    public void clear_forgetsEverything() {
+        LayoutCache cache = new LayoutCache(1);
+        cache.obtain(300, 50, 24, 0);
+        cache.clear();
+        assertNull(cache.find(300, 50, 24, 0));
+    }
+
+}
@@ -0,0 +1,135 @@
+
+package me.angrybyte.numberpicker.view;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JVM tests for {@link PickerState}.
+ */
+public class PickerStateTest {
+
+    @Test
+    public void setters_restoreValueIntoRange() {
+        PickerState state = new PickerState(50, 0, 100);
+        state.setValue(150);
+        assertEquals(100, state.get().getValue());
+
+        state.setMaxValue(60);
+        assertEquals(30, state.get().getValue());
+        state.setMinValue(40);
+        assertEquals(50, state.get().getValue());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void setMinValue_aboveMax() {
+        new PickerState(50, 0, 100).setMinValue(100);
+    }
+
+    @Test
+    public void compareAndSet_failsOnStaleSnapshot() {
+        PickerState state = new PickerState(50, 0, 100);
+        PickerState.Snapshot stale = state.get();
+        state.setValue(60);
+        assertTrue(!state.compareAndSet(stale, 70, 0, 100));
+        assertTrue(state.compareAndSet(state.get(), 70, 0, 100));
+        assertEquals(70, state.get().getValue());
+    }
+
+    @Test
+    public void publish_keepsFieldsThePickerDidNotChange() {
+        PickerState state = new PickerState(50, 0, 100);
+        PickerState.Snapshot base = state.get();
+        state.setMaxValue(200);
+
+        PickerState.Snapshot published = state.publish(base, 60, 0, 100);
+        assertTrue(published.equals(60, 0, 200));
+        assertSame(published, state.get());
+    }
+
+    @Test
+    public void publish_keepsValueChangedByOthers() {
+        PickerState state = new PickerState(50, 0, 100);
+        PickerState.Snapshot base = state.get();
+        state.setValue(10);
+
+        assertTrue(state.publish(base, 50, 0, 80).equals(10, 0, 80));
+    }
+
+    @Test
+    public void publish_clampsValueIntoMergedRange() {
+        PickerState state = new PickerState(50, 0, 100);
+        PickerState.Snapshot base = state.get();
+        state.setMaxValue(40);
+
+        assertTrue(state.publish(base, 45, 0, 100).equals(40, 0, 40));
+    }
+
+    @Test
+    public void publish_conflictingRangesUsePickerRange() {
+        PickerState state = new PickerState(50, 0, 100);
+        PickerState.Snapshot base = state.get();
+        state.setMinValue(90);
+
+        // the worker's value moved along with its range, and is clamped into the picker's range
+        assertTrue(state.publish(base, 50, 0, 80).equals(80, 0, 80));
+    }
+
+    @Test
+    public void publish_unchangedKeepsSnapshot() {
+        PickerState state = new PickerState(50, 0, 100);
+        PickerState.Snapshot current = state.get();
+        assertSame(current, state.publish(current, 50, 0, 100));
+    }
+
+    @Test
+    public void replace_dropsUnsyncedWrites() {
+        final int[] notifications = new int[1];
+        PickerState state = new PickerState(50, 0, 100);
+        state.setValue(10);
+        state.setObserver(new PickerState.Observer() {
+            @Override
+            public void onStateChanged() {
+                notifications[0]++;
+            }
+        });
+
+        // publishing the same value would keep the worker's 10, a rebind must not
+        PickerState.Snapshot replaced = state.replace(50, 0, 100);
+        assertTrue(replaced.equals(50, 0, 100));
+        assertSame(replaced, state.get());
+        assertEquals(0, notifications[0]);
+    }
+
+    @Test
+    public void publish_doesNotLoseConcurrentWrites() throws InterruptedException {
+        final int writes = 20000;
+        final PickerState state = new PickerState(0, 0, 100);
+        Thread worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 1; i <= writes; i++) {
+                    state.setMaxValue(100 + i);
+                }
+            }
+        });
+
+        // the picker keeps changing its value while the worker changes the maximum
+        PickerState.Snapshot base = state.get();
+        worker.start();
+        int value = 0;
+        while (worker.isAlive()) {
+            value = (value + 1) % 50;
+            state.publish(base, value, 0, 100);
+            base = new PickerState.Snapshot(value, 0, 100);
+        }
+        worker.join();
+
+        assertEquals(100 + writes, state.get().getMaxValue());
+        assertEquals(0, state.get().getMinValue());
+    }
+
+}
@@ -0,0 +1,107 @@
+
+package me.angrybyte.numberpicker.view;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JVM tests for {@link QualityGovernor}, with a 60 fps frame budget.
+ */
+public class QualityGovernorTest {
+
+    private static final long MILLIS = 1000000L;
+    private static final long JANKY_FRAME = 40 * MILLIS;
+    private static final long SMOOTH_FRAME = 10 * MILLIS;
+
+    private QualityGovernor mGovernor;
+    private long mTime;
+
+    @Before
+    public void setUp() {
+        mGovernor = new QualityGovernor();
+        mGovernor.setRefreshRate(60);
+        mTime = 1000 * MILLIS;
+        // first frame of an animation is never measured
+        assertFalse(mGovernor.onFrame(mTime));
+    }
+
+    @Test
+    public void sustainedJank_downgradesOneLevelAtATime() {
+        assertEquals(9, framesUntilChange(JANKY_FRAME, 9));
+        assertEquals(ActualNumberPicker.QUALITY_FULL, mGovernor.getLevel());
+        assertTrue(mGovernor.onFrame(mTime += JANKY_FRAME));
+        assertEquals(ActualNumberPicker.QUALITY_FEWER_BARS, mGovernor.getLevel());
+
+        assertEquals(10, framesUntilChange(JANKY_FRAME, 100));
+        assertEquals(ActualNumberPicker.QUALITY_NO_ANTI_ALIAS, mGovernor.getLevel());
+        assertEquals(10, framesUntilChange(JANKY_FRAME, 100));
+        assertEquals(ActualNumberPicker.QUALITY_NO_BLUR, mGovernor.getLevel());
+
+        // lowest level reached
+        assertEquals(100, framesUntilChange(JANKY_FRAME, 100));
+        assertEquals(ActualNumberPicker.QUALITY_NO_BLUR, mGovernor.getLevel());
+    }
+
+    @Test
+    public void smoothFrames_upgradeAfterAWhile() {
+        framesUntilChange(JANKY_FRAME, 100);
+        assertEquals(ActualNumberPicker.QUALITY_FEWER_BARS, mGovernor.getLevel());
+
+        assertEquals(120, framesUntilChange(SMOOTH_FRAME, 1000));
+        assertEquals(ActualNumberPicker.QUALITY_FULL, mGovernor.getLevel());
+
+        // already at full quality
+        assertEquals(1000, framesUntilChange(SMOOTH_FRAME, 1000));
+    }
+
+    @Test
+    public void smoothFrames_neverDowngrade() {
+        assertEquals(1000, framesUntilChange(SMOOTH_FRAME, 1000));
+        assertEquals(ActualNumberPicker.QUALITY_FULL, mGovernor.getLevel());
+    }
+
+    @Test
+    public void idleGaps_areNotMeasured() {
+        for (int i = 0; i < 100; i++) {
+            assertFalse(mGovernor.onFrame(mTime += 1000 * MILLIS));
+        }
+        assertEquals(ActualNumberPicker.QUALITY_FULL, mGovernor.getLevel());
+    }
+
+    @Test
+    public void animationEnd_skipsTheGapToTheNextAnimation() {
+        framesUntilChange(JANKY_FRAME, 9);
+        mGovernor.onAnimationEnd();
+
+        // a short gap, but it's not a frame
+        assertFalse(mGovernor.onFrame(mTime += JANKY_FRAME));
+        assertEquals(ActualNumberPicker.QUALITY_FULL, mGovernor.getLevel());
+        assertTrue(mGovernor.onFrame(mTime += JANKY_FRAME));
+    }
+
+    @Test
+    public void reset_restoresFullQuality() {
+        framesUntilChange(JANKY_FRAME, 100);
+        mGovernor.reset();
+        assertEquals(ActualNumberPicker.QUALITY_FULL, mGovernor.getLevel());
+    }
+
+    /**
+     * Feeds frames with the given interval until the level changes.
+     *
+     * @return How many frames were fed, including the one that changed the level
+     */
+    private int framesUntilChange(long interval, int maxFrames) {
+        for (int i = 1; i <= maxFrames; i++) {
+            if (mGovernor.onFrame(mTime += interval)) {
+                return i;
+            }
+        }
+        return maxFrames;
+    }
+
+}
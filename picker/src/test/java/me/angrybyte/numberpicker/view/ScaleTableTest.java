@@ -0,0 +1,109 @@
+
+package me.angrybyte.numberpicker.view;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JVM tests for {@link ScaleTable} and the built-in {@link ValueScale}s.
+ */
+public class ScaleTableTest {
+
+    @Test
+    public void valueAt_endpoints() {
+        ValueScale[] scales = new ValueScale[] {
+                ValueScale.LINEAR, ValueScale.LOGARITHMIC, ValueScale.piecewise(new float[] {
+                        0f, 0.5f, 1f
+                }, new float[] {
+                        0f, 0.1f, 1f
+                })
+        };
+        for (ValueScale scale : scales) {
+            ScaleTable table = table(scale, 300, -50, 1000);
+            assertEquals(-50, table.valueAt(0));
+            assertEquals(1000, table.valueAt(300));
+        }
+    }
+
+    @Test
+    public void valueAt_clampsOutsideOfView() {
+        ScaleTable table = table(ValueScale.LINEAR, 300, 10, 20);
+        assertEquals(10, table.valueAt(-100));
+        assertEquals(20, table.valueAt(400));
+    }
+
+    @Test
+    public void valueAt_isMonotonic() {
+        ScaleTable table = table(ValueScale.LOGARITHMIC, 1000, 1, 1000000);
+        int previous = Integer.MIN_VALUE;
+        for (float x = 0; x <= 1000; x += 0.25f) {
+            int value = table.valueAt(x);
+            assertTrue(value >= previous);
+            previous = value;
+        }
+    }
+
+    @Test
+    public void valueAt_linearMatchesDirectMapping() {
+        ScaleTable table = table(ValueScale.LINEAR, 250, 0, 1000);
+        for (float x = 0; x <= 250; x += 0.5f) {
+            int direct = (int) Math.floor(x / 250 * 1000);
+            assertTrue(Math.abs(table.valueAt(x) - direct) <= 1);
+        }
+    }
+
+    @Test
+    public void valueAt_logarithmicKeepsLowEndPrecision() {
+        // a tenth of the picker covers the values below 1,000,000 ^ 0.1, i.e. below 4
+        ScaleTable table = table(ValueScale.LOGARITHMIC, 1000, 0, 1000000);
+        assertTrue(table.valueAt(100) <= 4);
+        assertTrue(table.valueAt(500) <= 1000);
+        // so single values are still reachable at the low end
+        assertEquals(1, table.valueAt(60) - table.valueAt(0), 1);
+    }
+
+    @Test
+    public void fastStep_linearMovesByTenth() {
+        ScaleTable table = table(ValueScale.LINEAR, 500, 0, 1000);
+        assertEquals(600, table.fastStep(500, 1));
+        assertEquals(300, table.fastStep(500, -2));
+        assertEquals(1000, table.fastStep(950, 1));
+        assertEquals(0, table.fastStep(50, -3));
+    }
+
+    @Test
+    public void fastStep_followsTheScale() {
+        ScaleTable table = table(ValueScale.piecewise(new float[] {
+                0f, 0.5f, 1f
+        }, new float[] {
+                0f, 0.1f, 1f
+        }), 500, 0, 1000);
+        // the first half of the picker is the lowest 10% of the range
+        assertEquals(20, table.fastStep(0, 1));
+        assertEquals(100, table.fastStep(0, 5));
+        assertEquals(280, table.fastStep(100, 1));
+        assertEquals(1000, table.fastStep(100, 100));
+    }
+
+    @Test
+    public void update_rebuildsOnChange() {
+        ScaleTable table = table(ValueScale.LINEAR, 100, 0, 100);
+        assertEquals(50, table.valueAt(50));
+
+        table.update(ValueScale.LINEAR, 100, 0, 200);
+        assertEquals(100, table.valueAt(50));
+        table.update(ValueScale.LINEAR, 200, 0, 200);
+        assertEquals(50, table.valueAt(50));
+        table.update(ValueScale.LOGARITHMIC, 200, 0, 200);
+        assertTrue(table.valueAt(50) < 50);
+    }
+
+    private static ScaleTable table(ValueScale scale, int width, int minValue, int maxValue) {
+        ScaleTable table = new ScaleTable();
+        table.update(scale, width, minValue, maxValue);
+        return table;
+    }
+
+}
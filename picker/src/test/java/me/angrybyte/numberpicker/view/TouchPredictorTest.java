@@ -0,0 +1,109 @@
+package me.angrybyte.numberpicker.view;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JVM tests for {@link TouchPredictor}, with a finger moving 2 pixels per millisecond unless noted otherwise.
+ */
+public class TouchPredictorTest {
+
+    private static final float DELTA = 0.001f;
+    private static final long START = 1000;
+
+    private TouchPredictor mPredictor;
+
+    @Before
+    public void setUp() {
+        mPredictor = new TouchPredictor();
+    }
+
+    private void addLine(long fromMillis, long toMillis, long stepMillis) {
+        for (long time = fromMillis; time <= toMillis; time += stepMillis) {
+            mPredictor.addSample(2 * (time - START), time);
+        }
+    }
+
+    @Test
+    public void constantVelocity_extrapolatedByOneFrame() {
+        addLine(START, START + 16, 8);
+        // newest is 32 at 1016, one 16 ms frame ahead
+        assertEquals(64, mPredictor.predict(START + 16), DELTA);
+        assertEquals(72, mPredictor.predict(START + 20), DELTA);
+    }
+
+    @Test
+    public void noisySample_fittedOver() {
+        mPredictor.addSample(0, START);
+        mPredictor.addSample(20, START + 8); // 4 pixels off the line
+        mPredictor.addSample(32, START + 16);
+        // the fitted slope is still 2, a two-point slope from the last sample would be 1.5
+        assertEquals(64, mPredictor.predict(START + 16), DELTA);
+    }
+
+    @Test
+    public void horizon_cappedAtTwoFrames() {
+        addLine(START, START + 16, 8);
+        // 24 ms since the newest sample plus a frame is 40 ms, capped to 32 ms
+        assertEquals(96, mPredictor.predict(START + 40), DELTA);
+    }
+
+    @Test
+    public void restingFinger_returnsNewest() {
+        addLine(START, START + 16, 8);
+        assertEquals(32, mPredictor.predict(START + 16 + 51), DELTA);
+    }
+
+    @Test
+    public void singleSample_returnsNewest() {
+        mPredictor.addSample(42, START);
+        assertEquals(42, mPredictor.predict(START), DELTA);
+        assertEquals(42, mPredictor.predict(START + 10), DELTA);
+    }
+
+    @Test
+    public void oldSamples_outsideWindowIgnored() {
+        mPredictor.addSample(500, START - 100);
+        addLine(START, START + 16, 8);
+        assertEquals(64, mPredictor.predict(START + 16), DELTA);
+    }
+
+    @Test
+    public void manySamples_keepMostRecent() {
+        addLine(START, START + 80, 8);
+        // newest is 160 at 1080
+        assertEquals(192, mPredictor.predict(START + 80), DELTA);
+    }
+
+    @Test
+    public void setRefreshRate_changesHorizon() {
+        addLine(START, START + 16, 8);
+        mPredictor.setRefreshRate(120);
+        assertEquals(48, mPredictor.predict(START + 16), DELTA);
+
+        // invalid rates are ignored
+        mPredictor.setRefreshRate(0);
+        mPredictor.setRefreshRate(-60);
+        assertEquals(48, mPredictor.predict(START + 16), DELTA);
+    }
+
+    @Test
+    public void reset_forgetsSamples() {
+        assertFalse(mPredictor.hasSamples());
+        addLine(START, START + 16, 8);
+        assertTrue(mPredictor.hasSamples());
+
+        mPredictor.reset();
+        assertFalse(mPredictor.hasSamples());
+
+        // the previous gesture doesn't affect the next one
+        mPredictor.addSample(10, START + 20);
+        assertTrue(mPredictor.hasSamples());
+        assertEquals(10, mPredictor.predict(START + 20), DELTA);
+    }
+
+}